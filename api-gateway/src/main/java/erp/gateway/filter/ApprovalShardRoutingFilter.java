@@ -0,0 +1,104 @@
+package erp.gateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * /process/{approverId}/** 요청을 그 승인자의 샤드를 맡은 처리 노드로 보낸다.
+ * 처리 서비스는 승인자 단위로 요청 큐를 나눠 받으므로, 조회·구독·결정 HTTP 호출도 같은 노드로 가야 한다.
+ * 샤드 수가 1 이하면 라우트에 지정된 단일 upstream 을 그대로 쓴다.
+ */
+@Component
+public class ApprovalShardRoutingFilter implements GlobalFilter, Ordered {
+
+    static final String ROUTE_ID = "approval-processing-service";
+
+    private final int shardCount;
+    private final List<URI> shardUris;
+
+    public ApprovalShardRoutingFilter(
+            @Value("${approval.sharding.shard-count}") int shardCount,
+            @Value("${approval.sharding.shard-urls}") List<String> shardUrls) {
+        this.shardCount = shardCount;
+        this.shardUris = shardUrls.stream().filter(url -> !url.isBlank()).map(URI::create).toList();
+        if (shardCount > 1 && shardUris.size() != shardCount) {
+            throw new IllegalStateException(
+                    "approval.sharding.shard-urls must list one upstream per shard: " + shardCount);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (shardCount <= 1 || route == null || requestUrl == null || !ROUTE_ID.equals(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        Long approverId = approverIdOf(exchange.getRequest().getURI().getPath());
+        if (approverId == null) {
+            return chain.filter(exchange);
+        }
+        URI owner = shardUris.get(shardOf(approverId, shardCount));
+        URI routed = UriComponentsBuilder.fromUri(requestUrl)
+                .scheme(owner.getScheme())
+                .host(owner.getHost())
+                .port(owner.getPort())
+                .build(true)
+                .toUri();
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, routed);
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+
+    static Long approverIdOf(String path) {
+        String[] segments = path.split("/");
+        // "", "process", "{approverId}", ...
+        if (segments.length < 3 || !"process".equals(segments[1])) {
+            return null;
+        }
+        try {
+            return Long.valueOf(segments[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Jump consistent hash. erp.common.messaging.ApprovalSharding.shardOf 와 같은 규칙이어야 한다.
+     * 게이트웨이는 서블릿 기반 common-core 에 의존할 수 없어 같은 계산을 따로 둔다.
+     */
+    static int shardOf(long approverId, int shardCount) {
+        if (shardCount <= 1) {
+            return 0;
+        }
+        long key = approverId;
+        long b = -1;
+        long j = 0;
+        while (j < shardCount) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
@@ -0,0 +1,43 @@
+package erp.gateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import erp.common.messaging.ApprovalSharding;
+
+class ApprovalShardRoutingFilterTest {
+
+    @Test
+    @DisplayName("처리 서비스가 큐를 나누는 규칙과 같은 샤드를 고른다")
+    void sameShardAsMessaging() {
+        for (int shardCount = 1; shardCount <= 8; shardCount++) {
+            for (long approverId = 1; approverId <= 1000; approverId++) {
+                assertThat(ApprovalShardRoutingFilter.shardOf(approverId, shardCount))
+                        .isEqualTo(ApprovalSharding.shardOf(approverId, shardCount));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("/process/{approverId} 경로에서만 승인자 id 를 읽는다")
+    void approverIdFromPath() {
+        // when & then: 반환값 검증
+        assertThat(ApprovalShardRoutingFilter.approverIdOf("/process/42")).isEqualTo(42L);
+        assertThat(ApprovalShardRoutingFilter.approverIdOf("/process/42/batch")).isEqualTo(42L);
+        assertThat(ApprovalShardRoutingFilter.approverIdOf("/process/abc")).isNull();
+        assertThat(ApprovalShardRoutingFilter.approverIdOf("/approvals/42")).isNull();
+    }
+
+    @Test
+    @DisplayName("샤드 수와 upstream 수가 다르면 기동에 실패한다")
+    void failFastOnMissingShardUrls() {
+        // when & then: 예외 검증
+        assertThatThrownBy(() -> new ApprovalShardRoutingFilter(2, List.of("http://processing-0:8080")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
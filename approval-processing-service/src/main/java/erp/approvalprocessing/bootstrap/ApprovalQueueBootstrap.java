@@ -0,0 +1,107 @@
+package erp.approvalprocessing.bootstrap;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import erp.approvalprocessing.client.ApprovalRequestClient;
+import erp.approvalprocessing.service.ApprovalQueueService;
+import erp.approvalprocessing.service.QueueEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기동 시 approval-request-service 에서 진행 중인 결재를 받아 이 노드가 맡은 샤드의 큐를 다시 채운다.
+ * RabbitMQ 리스너와 웹 서버보다 앞선 lifecycle 단계에서 실행되므로, 복구가 끝나기 전에는
+ * 새 메시지를 받거나 트래픽을 받지 않는다. 재시도까지 모두 실패하면 빈 큐로 준비 상태가 되지 않도록 기동을 실패시킨다.
+ * fail-on-error 를 끄면 기동은 계속하고 이후 수신하는 메시지로만 큐를 채운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "approval.bootstrap", name = "enabled", havingValue = "true")
+public class ApprovalQueueBootstrap implements SmartLifecycle {
+
+    private final ApprovalRequestClient approvalRequestClient;
+    private final ApprovalQueueService approvalQueueService;
+
+    @Value("${approval.sharding.shard-count}")
+    private int shardCount;
+
+    @Value("${approval.sharding.owned-shards}")
+    private List<Integer> ownedShards;
+
+    @Value("${approval.bootstrap.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${approval.bootstrap.backoff-millis}")
+    private long backoffMillis;
+
+    @Value("${approval.bootstrap.fail-on-error}")
+    private boolean failOnError;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        bootstrap();
+        running = true;
+    }
+
+    void bootstrap() {
+        for (int attempt = 1; attempt <= Math.max(1, maxAttempts); attempt++) {
+            try {
+                long startedAt = System.currentTimeMillis();
+                int count = approvalRequestClient.streamPending(shardCount, ownedShards, this::restore);
+                log.info("진행 중인 결재 {}건으로 승인 큐를 복구했습니다. ({}ms)", count, System.currentTimeMillis() - startedAt);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("승인 큐 복구 시도 {}/{} 실패: {}", attempt, maxAttempts, e.getMessage());
+                if (attempt < maxAttempts) {
+                    sleep(backoffMillis);
+                }
+            }
+        }
+        if (failOnError) {
+            throw new IllegalStateException("승인 큐 복구에 실패해 기동을 중단합니다. 시도 횟수: " + maxAttempts);
+        }
+        log.error("승인 큐 복구에 실패했습니다. 이후 수신하는 메시지로만 큐를 채웁니다.");
+    }
+
+    private void restore(byte[] payload) {
+        try {
+            approvalQueueService.enqueue(QueueEntry.parse(payload, System.currentTimeMillis()));
+        } catch (InvalidProtocolBufferException e) {
+            log.warn("복구 스트림의 결재 요청 메시지를 건너뜁니다.", e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // RabbitMQ 리스너 컨테이너와 웹 서버(기본 단계)보다 먼저 시작한다
+        return 0;
+    }
+}
@@ -0,0 +1,65 @@
+package erp.approvalprocessing.client;
+
+import java.io.EOFException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import com.google.protobuf.CodedInputStream;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class ApprovalRequestClient {
+
+    @Value("${approval-request.base-url}")
+    private String baseUrl;
+
+    private final RestClient.Builder restClientBuilder;
+
+    private RestClient restClient;
+
+    @PostConstruct
+    void init() {
+        restClient = restClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    /**
+     * 진행 중인 결재 요청을 length-delimited protobuf 스트림으로 받아, 메시지 바이트를 하나씩 handler 에 넘긴다.
+     * 응답 전체를 메모리에 올리지 않고 읽는 즉시 전달한다.
+     *
+     * @return 받은 메시지 수
+     */
+    public int streamPending(int shardCount, List<Integer> shards, Consumer<byte[]> handler) {
+        String shardParam = shards.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return restClient
+                .get()
+                .uri("/internal/approvals/pending?shardCount={shardCount}&shards={shards}",
+                        shardCount, shardParam)
+                .exchange((request, response) -> {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw new IllegalStateException("pending approvals stream failed: " + response.getStatusCode());
+                    }
+                    InputStream in = response.getBody();
+                    int count = 0;
+                    int firstByte;
+                    while ((firstByte = in.read()) != -1) {
+                        int size = CodedInputStream.readRawVarint32(firstByte, in);
+                        byte[] payload = in.readNBytes(size);
+                        if (payload.length != size) {
+                            throw new EOFException("truncated pending approvals stream");
+                        }
+                        handler.accept(payload);
+                        count++;
+                    }
+                    return count;
+                });
+    }
+}
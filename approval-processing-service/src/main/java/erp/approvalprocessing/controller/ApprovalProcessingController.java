@@ -1,15 +1,21 @@
 package erp.approvalprocessing.controller;
 
 import java.util.List;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import erp.approvalprocessing.dto.ApprovalQueueItemResponse;
+import erp.approvalprocessing.dto.ApprovalQueuePageResponse;
+import erp.approvalprocessing.dto.BatchDecisionRequest;
+import erp.approvalprocessing.dto.BatchDecisionResponse;
 import erp.approvalprocessing.service.ApprovalProcessingService;
 import erp.shared.proto.approval.ApprovalResultStatus;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +33,29 @@ public class ApprovalProcessingController {
         return ResponseEntity.ok(approvalProcessingService.getQueue(approverId));
     }
 
+    @GetMapping(value = "/{approverId}", params = "limit")
+    @PreAuthorize("hasAnyRole('APPROVER','ADMIN')")
+    public ResponseEntity<ApprovalQueuePageResponse> queuePage(
+            @PathVariable Long approverId,
+            @RequestParam int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean includeSteps) {
+        return ResponseEntity.ok(approvalProcessingService.getQueuePage(approverId, limit, after, includeSteps));
+    }
+
+    @GetMapping(value = "/{approverId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('APPROVER','ADMIN')")
+    public SseEmitter events(@PathVariable Long approverId) {
+        return approvalProcessingService.subscribe(approverId);
+    }
+
+    @PostMapping("/{approverId}/batch")
+    @PreAuthorize("hasAnyRole('APPROVER','ADMIN')")
+    public ResponseEntity<BatchDecisionResponse> handleBatch(
+            @PathVariable Long approverId, @RequestBody BatchDecisionRequest body) {
+        return ResponseEntity.ok(approvalProcessingService.handleBatch(approverId, body.decisions()));
+    }
+
     @PostMapping("/{approverId}/{requestId}")
     @PreAuthorize("hasAnyRole('APPROVER','ADMIN')")
     public ResponseEntity<Void> handle(
@@ -0,0 +1,11 @@
+package erp.approvalprocessing.dto;
+
+import java.util.List;
+
+/**
+ * 승인자 큐 페이지 응답. nextCursor 가 null 이면 마지막 페이지다.
+ */
+public record ApprovalQueuePageResponse(
+        List<ApprovalQueueSummaryResponse> items,
+        String nextCursor) {
+}
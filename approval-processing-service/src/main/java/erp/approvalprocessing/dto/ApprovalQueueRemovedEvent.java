@@ -0,0 +1,6 @@
+package erp.approvalprocessing.dto;
+
+/**
+ * 승인자 큐 구독의 제거 이벤트 데이터.
+ */
+public record ApprovalQueueRemovedEvent(Long requestId) {}
@@ -0,0 +1,36 @@
+package erp.approvalprocessing.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import erp.approvalprocessing.dto.ApprovalQueueItemResponse.StepResponse;
+import erp.approvalprocessing.service.QueueEntry;
+import erp.shared.proto.approval.ApprovalRequest;
+
+/**
+ * 승인자 큐 페이지 조회용 요약 DTO.
+ * 폴링 응답 크기를 줄이기 위해 content 는 포함하지 않고, steps 는 요청한 경우에만 채운다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApprovalQueueSummaryResponse(
+        Long requestId,
+        Long requesterId,
+        String title,
+        int step,
+        long enqueuedAt,
+        List<StepResponse> steps) {
+
+    public static ApprovalQueueSummaryResponse from(QueueEntry entry, boolean includeSteps) {
+        ApprovalRequest proto = entry.request();
+        return new ApprovalQueueSummaryResponse(
+                entry.requestId(),
+                proto.getRequesterId(),
+                proto.getTitle(),
+                entry.step(),
+                entry.enqueuedAt(),
+                includeSteps
+                        ? proto.getStepsList().stream().map(StepResponse::from).toList()
+                        : null);
+    }
+}
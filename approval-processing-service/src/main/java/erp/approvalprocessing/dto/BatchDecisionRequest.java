@@ -0,0 +1,13 @@
+package erp.approvalprocessing.dto;
+
+import java.util.List;
+
+import erp.shared.proto.approval.ApprovalResultStatus;
+
+/**
+ * 여러 결재 건을 한 번에 처리하는 요청. decisions 는 큐 순서대로 검증된다.
+ */
+public record BatchDecisionRequest(List<Decision> decisions) {
+
+    public record Decision(Long requestId, ApprovalResultStatus status) {}
+}
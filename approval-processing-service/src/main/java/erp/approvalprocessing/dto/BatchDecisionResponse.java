@@ -0,0 +1,25 @@
+package erp.approvalprocessing.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import erp.common.exception.ErrorCode;
+
+/**
+ * 일괄 처리 결과. 요청 순서와 같은 순서로 건별 처리 여부를 담는다.
+ */
+public record BatchDecisionResponse(List<Outcome> results) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Outcome(Long requestId, boolean accepted, String errorCodeName, String errorMessage) {
+
+        public static Outcome accepted(Long requestId) {
+            return new Outcome(requestId, true, null, null);
+        }
+
+        public static Outcome failed(Long requestId, ErrorCode errorCode) {
+            return new Outcome(requestId, false, errorCode.name(), errorCode.getMessage());
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package erp.approvalprocessing.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+import erp.approvalprocessing.service.QueueEntry;
+import erp.approvalprocessing.service.QueueJournal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메모리 매핑된 세그먼트 파일에 큐 변경 이벤트를 순서대로 덧붙이는 로컬 저널.
+ *
+ * <pre>
+ * segment-{seq}.log : [int length][int crc32c][byte type][body] 레코드의 연속. length 0 이면 끝.
+ * snapshot-{seq}.bin: seq 세그먼트로 넘어간 시점 이후의 전체 큐 상태. 복구는 스냅샷 + seq 이상 세그먼트 재생.
+ * </pre>
+ *
+ * 레코드는 본문과 CRC 를 먼저 쓰고 length 를 마지막에 써서, 중간에 프로세스가 죽어도 잘린 레코드는 읽히지 않는다.
+ * 레코드 인코딩과 CRC 계산은 잠금 밖에서 하고, 잠금 안에서는 매핑된 세그먼트로 복사만 하므로
+ * 승인자별 큐 잠금을 쥔 호출끼리는 복사 구간에서만 겹친다.
+ *
+ * <p>내구성: append 는 매핑된 페이지(OS 페이지 캐시)에 쓰고 반환한다. 프로세스가 죽어도 기록은 남지만,
+ * OS 나 전원 장애에는 마지막 {@link #force()} 이후 기록을 잃을 수 있다. force() 는 주기적으로(묶어서) 호출한다.
+ *
+ * <p>재생 중 CRC 나 길이가 맞지 않는 레코드를 만나면 그 자리에서 재생을 멈춘다. 손상 지점 뒤와 이후 세그먼트는
+ * 순서가 이어지지 않으므로 재생하지 않고, 손상 지점부터 이어 쓰며 이후 세그먼트는 .discarded 로 옮겨 둔다.
+ *
+ * <p>디스크가 가득 차거나 세그먼트를 매핑할 수 없어 기록에 실패하면 예외를 던지지 않고 메모리 전용으로 전환한다.
+ * 예외를 던지면 메시지가 재전달되며 같은 실패를 반복하기 때문이다. 전환 중에는 기록을 건너뛰고 그 수를 센다.
+ * 디스크의 저널은 메모리 상태와 어긋나므로 DEGRADED 표시 파일을 남기고, 다음 {@link #roll()} 이 성공하면 기록을 다시 시작하며
+ * 이어지는 {@link #snapshot} 이 전체 상태를 쓰면 표시를 지운다. 표시가 남은 채 재시작하면 저널을 격리하고 빈 큐로 시작한다.
+ * 마지막 스냅샷이 손상된 경우도 같다. 스냅샷을 쓸 때 이전 스냅샷과 세그먼트를 지우므로 되돌아갈 상태가 없다.
+ */
+@Slf4j
+public class MappedQueueJournal implements QueueJournal, AutoCloseable {
+
+    static final byte TYPE_ENQUEUE = 1;
+    static final byte TYPE_REMOVE = 2;
+
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int SNAPSHOT_MAGIC = 0x41505153; // "APQS"
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final String DEGRADED_MARKER = "DEGRADED";
+
+    private final Path directory;
+    private final int segmentSizeBytes;
+
+    private long segmentSeq;
+    private MappedByteBuffer segment;
+    private boolean opened;
+
+    /** 기록에 실패해 메모리 전용으로 동작 중이면 true */
+    private volatile boolean degraded;
+    private final AtomicLong skippedRecords = new AtomicLong();
+
+    public MappedQueueJournal(Path directory, int segmentSizeBytes) {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+
+    /**
+     * 마지막 스냅샷과 이후 세그먼트를 재생한 뒤 이어쓰기 위치를 잡는다. 기록 전에 한 번 호출해야 한다.
+     */
+    public synchronized void open(Consumer<QueueEntry> onEnqueue, RemoveHandler onRemove) {
+        if (opened) {
+            throw new IllegalStateException("journal already opened");
+        }
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(directory.resolve(DEGRADED_MARKER))) {
+                quarantine("메모리 전용으로 동작하던 중 종료되어 저널이 큐 상태와 어긋납니다.");
+            }
+
+            long snapshotSeq = latestSeq(SNAPSHOT_NAME);
+            List<QueueEntry> snapshot = List.of();
+            if (snapshotSeq >= 0) {
+                try {
+                    snapshot = readSnapshot(snapshotFile(snapshotSeq));
+                } catch (IOException | RuntimeException e) {
+                    // 이전 스냅샷과 세그먼트는 이미 정리되어 남은 세그먼트만으로는 큐를 복구할 수 없다
+                    quarantine("스냅샷을 읽을 수 없습니다: " + e.getMessage());
+                    snapshotSeq = -1;
+                }
+            }
+            snapshot.forEach(onEnqueue);
+
+            long firstSegment = Math.max(snapshotSeq, 0);
+            List<Long> segments = listSeqs(SEGMENT_NAME).stream()
+                    .filter(seq -> seq >= firstSegment)
+                    .toList();
+            int tail = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                long seq = segments.get(i);
+                MappedByteBuffer buffer = map(segmentFile(seq), 0);
+                Replay replay = replaySegment(buffer, onEnqueue, onRemove);
+                tail = replay.tail();
+                segmentSeq = seq;
+                segment = buffer;
+                if (replay.corrupt()) {
+                    List<Long> discarded = segments.subList(i + 1, segments.size());
+                    log.error("저널 세그먼트 {} 의 {} 위치에서 손상된 레코드를 발견해 재생을 멈춥니다. 이후 세그먼트 {}개는 버립니다.",
+                            seq, tail, discarded.size());
+                    discard(discarded);
+                    break;
+                }
+            }
+
+            if (segment == null) {
+                segmentSeq = firstSegment;
+                segment = map(segmentFile(segmentSeq), segmentSizeBytes);
+                tail = 0;
+            }
+            truncateTail(segment, tail);
+            opened = true;
+
+            log.info("승인 큐 저널을 복구했습니다. snapshot={}, segments={}", snapshotSeq, segments.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("승인 큐 저널을 열 수 없습니다: " + directory, e);
+        }
+    }
+
+    @Override
+    public void appendEnqueue(QueueEntry entry) {
+        byte[] payload = entry.payload();
+        ByteBuffer body = ByteBuffer.allocate(Long.BYTES * 3 + Integer.BYTES * 2 + payload.length);
+        writeEntry(body, entry);
+        append(encode(TYPE_ENQUEUE, body.flip()));
+    }
+
+    @Override
+    public void appendRemove(long approverId, long requestId) {
+        ByteBuffer body = ByteBuffer.allocate(Long.BYTES * 2)
+                .putLong(approverId)
+                .putLong(requestId);
+        append(encode(TYPE_REMOVE, body.flip()));
+    }
+
+    /**
+     * 지금까지 덧붙인 레코드를 디스크로 내린다. 잠금은 현재 세그먼트를 고를 때만 쥐므로 기록을 막지 않는다.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            if (!opened) {
+                return;
+            }
+            current = segment;
+        }
+        current.force();
+    }
+
+    /**
+     * 새 세그먼트로 넘어가고 그 번호를 반환한다. 반환된 번호로 스냅샷을 쓰면 이전 세그먼트는 지워도 된다.
+     */
+    public synchronized long roll() {
+        ensureOpened();
+        if (segment.position() > 0) {
+            segment.force();
+            try {
+                segment = map(segmentFile(segmentSeq + 1), segmentSizeBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("저널 세그먼트를 만들 수 없습니다.", e);
+            }
+            segmentSeq++;
+        }
+        if (degraded) {
+            // 이후 기록은 새 세그먼트에 남고, 이전 상태는 이어지는 스냅샷이 채운다
+            degraded = false;
+            log.warn("승인 큐 저널 기록을 다시 시작합니다. 건너뛴 기록: {}건", skippedRecords.get());
+        }
+        return segmentSeq;
+    }
+
+    /**
+     * roll() 이후 수집한 큐 상태를 스냅샷으로 쓰고, 스냅샷에 포함된 이전 세그먼트와 스냅샷을 정리한다.
+     * 스냅샷 이후의 변경은 seq 이상 세그먼트에 남아 있고, 재생은 requestId 기준 덮어쓰기라 중복 적용돼도 결과가 같다.
+     */
+    public void snapshot(long seq, Collection<QueueEntry> entries) {
+        Path target = snapshotFile(seq);
+        Path tmp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CRC32C crc = new CRC32C();
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), crc)));
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(entries.size());
+                for (QueueEntry entry : entries) {
+                    out.writeLong(entry.approverId());
+                    out.writeLong(entry.requestId());
+                    out.writeInt(entry.step());
+                    out.writeLong(entry.enqueuedAt());
+                    out.writeInt(entry.payload().length);
+                    out.write(entry.payload());
+                }
+                out.flush();
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(crc.getValue()).flip());
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("승인 큐 스냅샷을 쓸 수 없습니다: " + target, e);
+        }
+
+        deleteOlderThan(seq, SEGMENT_NAME, this::segmentFile);
+        deleteOlderThan(seq, SNAPSHOT_NAME, this::snapshotFile);
+        clearDegradedMarker();
+        log.debug("승인 큐 스냅샷을 저장했습니다. seq={}, entries={}", seq, entries.size());
+    }
+
+    /**
+     * 기록에 실패해 메모리 전용으로 동작 중인지 여부.
+     */
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * 메모리 전용으로 동작하는 동안 저널에 남기지 못한 기록 수.
+     */
+    public long skippedRecords() {
+        return skippedRecords.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    /**
+     * [length][crc][type][body] 레코드를 만든다. 잠금 밖에서 호출한다.
+     */
+    private static ByteBuffer encode(byte type, ByteBuffer body) {
+        int length = 1 + body.remaining();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.position(RECORD_HEADER_BYTES);
+        record.put(type);
+        record.put(body);
+
+        CRC32C crc = new CRC32C();
+        crc.update(record.slice(RECORD_HEADER_BYTES, length));
+        record.putInt(0, length);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record;
+    }
+
+    private synchronized void append(ByteBuffer record) {
+        ensureOpened();
+        if (degraded) {
+            skippedRecords.incrementAndGet();
+            return;
+        }
+        try {
+            int size = record.capacity();
+            if (segment.remaining() < size) {
+                rollFor(size);
+            }
+
+            int start = segment.position();
+            segment.put(start + Integer.BYTES, record, Integer.BYTES, size - Integer.BYTES);
+            // length 를 마지막에 기록해야 잘린 레코드가 끝 표시(0)로 읽힌다
+            segment.putInt(start, record.getInt(0));
+            segment.position(start + size);
+        } catch (UncheckedIOException | InternalError e) {
+            // 매핑된 페이지를 디스크에 할당하지 못하면 JVM 은 InternalError 로 알린다
+            degrade(e);
+        }
+    }
+
+    private void degrade(Throwable cause) {
+        degraded = true;
+        skippedRecords.incrementAndGet();
+        log.error("승인 큐 저널 기록에 실패해 메모리 전용으로 전환합니다. 재시작하면 큐를 복구할 수 없습니다.", cause);
+        try {
+            Files.write(directory.resolve(DEGRADED_MARKER), new byte[0]);
+        } catch (IOException e) {
+            log.error("저널 DEGRADED 표시를 남기지 못했습니다. 재시작 시 어긋난 저널을 재생할 수 있습니다.", e);
+        }
+    }
+
+    private synchronized void clearDegradedMarker() {
+        if (degraded) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(DEGRADED_MARKER));
+        } catch (IOException e) {
+            log.warn("저널 DEGRADED 표시를 지우지 못했습니다.", e);
+        }
+    }
+
+    /**
+     * 디렉터리의 저널 파일을 quarantine-{시각} 하위 디렉터리로 옮겨 두고 빈 저널로 시작하게 한다.
+     */
+    private void quarantine(String reason) throws IOException {
+        Path target = directory.resolve("quarantine-" + System.currentTimeMillis());
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.move(file, target.resolve(file.getFileName()));
+            }
+        }
+        log.error("승인 큐 저널을 {} 로 격리하고 빈 큐로 시작합니다. 사유: {}", target, reason);
+    }
+
+    private void rollFor(int recordBytes) {
+        segment.force();
+        try {
+            segment = map(segmentFile(segmentSeq + 1), Math.max(segmentSizeBytes, recordBytes + Integer.BYTES));
+        } catch (IOException e) {
+            throw new UncheckedIOException("저널 세그먼트를 만들 수 없습니다.", e);
+        }
+        segmentSeq++;
+    }
+
+    private Replay replaySegment(MappedByteBuffer buffer, Consumer<QueueEntry> onEnqueue, RemoveHandler onRemove) {
+        int position = 0;
+        while (!isEnd(buffer, position)) {
+            ByteBuffer record = readRecord(buffer, position);
+            if (record == null) {
+                return new Replay(position, true);
+            }
+            byte type = record.get();
+            if (type == TYPE_ENQUEUE) {
+                onEnqueue.accept(readEntry(record));
+            } else if (type == TYPE_REMOVE) {
+                onRemove.remove(record.getLong(), record.getLong());
+            }
+            position += RECORD_HEADER_BYTES + record.limit();
+        }
+        return new Replay(position, false);
+    }
+
+    /**
+     * 세그먼트 끝이거나 아직 기록되지 않은 자리(length 0, 잘린 레코드 포함)면 true.
+     */
+    private static boolean isEnd(MappedByteBuffer buffer, int position) {
+        return buffer.limit() - position < RECORD_HEADER_BYTES || buffer.getInt(position) == 0;
+    }
+
+    /**
+     * position 의 레코드 본문(type 포함)을 반환한다. 길이가 범위를 벗어나거나 CRC 가 맞지 않으면 null.
+     */
+    private ByteBuffer readRecord(MappedByteBuffer buffer, int position) {
+        int length = buffer.getInt(position);
+        if (length < 0 || length > buffer.limit() - position - RECORD_HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer record = buffer.slice(position + RECORD_HEADER_BYTES, length);
+        CRC32C crc = new CRC32C();
+        crc.update(record.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+            return null;
+        }
+        return record;
+    }
+
+    private void discard(List<Long> seqs) throws IOException {
+        for (long seq : seqs) {
+            Path file = segmentFile(seq);
+            Files.move(file, directory.resolve(file.getFileName() + ".discarded"), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 마지막 유효 레코드 뒤를 0 으로 채워, 이어 쓴 레코드 뒤에 남은 이전 바이트가 레코드로 읽히지 않게 한다.
+     */
+    private void truncateTail(MappedByteBuffer buffer, int tail) {
+        byte[] zeros = new byte[64 * 1024];
+        for (int i = tail; i < buffer.limit(); i += zeros.length) {
+            buffer.put(i, zeros, 0, Math.min(zeros.length, buffer.limit() - i));
+        }
+        buffer.position(tail);
+    }
+
+    private List<QueueEntry> readSnapshot(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        if (buffer.getLong(bytes.length - Long.BYTES) != crc.getValue() || buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("손상된 승인 큐 스냅샷입니다: " + file);
+        }
+        int count = buffer.getInt();
+        List<QueueEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(readEntry(buffer));
+        }
+        return entries;
+    }
+
+    private static void writeEntry(ByteBuffer buffer, QueueEntry entry) {
+        buffer.putLong(entry.approverId())
+                .putLong(entry.requestId())
+                .putInt(entry.step())
+                .putLong(entry.enqueuedAt())
+                .putInt(entry.payload().length)
+                .put(entry.payload());
+    }
+
+    private static QueueEntry readEntry(ByteBuffer buffer) {
+        long approverId = buffer.getLong();
+        long requestId = buffer.getLong();
+        int step = buffer.getInt();
+        long enqueuedAt = buffer.getLong();
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+        return new QueueEntry(requestId, step, approverId, enqueuedAt, payload);
+    }
+
+    private MappedByteBuffer map(Path file, int minSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), minSize);
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private void deleteOlderThan(long seq, Pattern pattern, LongFunction<Path> file) {
+        try {
+            for (long old : listSeqs(pattern)) {
+                if (old < seq) {
+                    Files.deleteIfExists(file.apply(old));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("오래된 저널 파일 정리에 실패했습니다.", e);
+        }
+    }
+
+    private long latestSeq(Pattern pattern) throws IOException {
+        List<Long> seqs = listSeqs(pattern);
+        return seqs.isEmpty() ? -1 : seqs.getLast();
+    }
+
+    private List<Long> listSeqs(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> pattern.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentFile(long seq) {
+        return directory.resolve("segment-%020d.log".formatted(seq));
+    }
+
+    private Path snapshotFile(long seq) {
+        return directory.resolve("snapshot-%020d.bin".formatted(seq));
+    }
+
+    private void ensureOpened() {
+        if (!opened) {
+            throw new IllegalStateException("journal is not opened");
+        }
+    }
+
+    /**
+     * @param tail 마지막 유효 레코드 뒤 위치
+     * @param corrupt 손상된 레코드에서 멈췄으면 true
+     */
+    private record Replay(int tail, boolean corrupt) {}
+
+    @FunctionalInterface
+    public interface RemoveHandler {
+        void remove(long approverId, long requestId);
+    }
+}
@@ -0,0 +1,61 @@
+package erp.approvalprocessing.journal;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import erp.approvalprocessing.service.ApprovalQueueService;
+import erp.approvalprocessing.service.QueueJournal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 승인 큐 로컬 저널 설정. 기본은 비활성화이며, 켜면 재시작 시 저널에서 큐를 복구한다.
+ * 끄면 아무것도 기록하지 않는 QueueJournal.NOOP 을 쓴다.
+ * 기록 실패로 메모리 전용이 되면 approval.journal.degraded 가 1 이 되므로 이 지표에 경보를 건다.
+ */
+@Configuration
+@EnableScheduling
+public class QueueJournalConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "approval.journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public QueueJournal noopQueueJournal() {
+        return QueueJournal.NOOP;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "approval.journal", name = "enabled", havingValue = "true")
+    public MappedQueueJournal mappedQueueJournal(
+            @Value("${approval.journal.dir}") String dir,
+            @Value("${approval.journal.segment-size-bytes}") int segmentSizeBytes) {
+        return new MappedQueueJournal(Path.of(dir), segmentSizeBytes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "approval.journal", name = "enabled", havingValue = "true")
+    public QueueJournalMaintenance queueJournalMaintenance(
+            MappedQueueJournal mappedQueueJournal,
+            ApprovalQueueService approvalQueueService) {
+        return new QueueJournalMaintenance(mappedQueueJournal, approvalQueueService);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "approval.journal", name = "enabled", havingValue = "true")
+    public MeterBinder queueJournalMetrics(MappedQueueJournal mappedQueueJournal) {
+        return registry -> {
+            Gauge.builder("approval.journal.degraded", mappedQueueJournal, journal -> journal.isDegraded() ? 1 : 0)
+                    .description("저널 기록에 실패해 메모리 전용으로 동작 중이면 1")
+                    .register(registry);
+            FunctionCounter.builder("approval.journal.skipped.records", mappedQueueJournal,
+                            MappedQueueJournal::skippedRecords)
+                    .description("메모리 전용으로 동작하는 동안 저널에 남기지 못한 기록 수")
+                    .register(registry);
+        };
+    }
+}
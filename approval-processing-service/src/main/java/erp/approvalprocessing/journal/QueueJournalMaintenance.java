@@ -0,0 +1,46 @@
+package erp.approvalprocessing.journal;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import erp.approvalprocessing.service.ApprovalQueueService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기동 시 저널을 재생해 큐를 복구하고, 주기적으로 스냅샷을 남겨 오래된 세그먼트를 정리한다.
+ * 기록은 force-interval-millis 마다 묶어서 디스크로 내리므로, OS 장애 시 그 간격만큼의 변경을 잃을 수 있다.
+ * 복구는 빈 초기화 단계에서 끝나므로 RabbitMQ 리스너가 시작되기 전에 큐가 채워진다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueueJournalMaintenance {
+
+    private final MappedQueueJournal journal;
+    private final ApprovalQueueService approvalQueueService;
+
+    @PostConstruct
+    public void recover() {
+        journal.open(approvalQueueService::restore, approvalQueueService::restoreRemove);
+    }
+
+    @Scheduled(fixedDelayString = "${approval.journal.force-interval-millis}")
+    public void force() {
+        try {
+            journal.force();
+        } catch (RuntimeException e) {
+            log.error("승인 큐 저널을 디스크로 내리지 못했습니다.", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${approval.journal.snapshot-interval-millis}",
+            initialDelayString = "${approval.journal.snapshot-interval-millis}")
+    public void snapshot() {
+        try {
+            long seq = journal.roll();
+            journal.snapshot(seq, approvalQueueService.entries());
+        } catch (RuntimeException e) {
+            log.error("승인 큐 스냅샷 저장에 실패했습니다.", e);
+        }
+    }
+}
@@ -6,20 +6,42 @@ import static erp.common.messaging.ApprovalMessagingConstants.RESULT_QUEUE_NAME;
 import static erp.common.messaging.ApprovalMessagingConstants.ROUTING_KEY_REQUEST;
 import static erp.common.messaging.ApprovalMessagingConstants.ROUTING_KEY_RESULT;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Exchange;
 import org.springframework.amqp.core.ExchangeBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import erp.common.messaging.ApprovalSharding;
+import erp.common.messaging.ConfirmingPublisher;
 
 @Configuration
 @EnableRabbit
 public class ApprovalProcessingMessagingConfig {
 
+    /**
+     * 결재 메시지 발행기. 메시지마다 브로커 확인을 future 로 받고, batch-size 가 2 이상이면 모아서 발행한다.
+     */
+    @Bean(destroyMethod = "close")
+    public ConfirmingPublisher confirmingPublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${approval.publisher.batch-size}") int batchSize,
+            @Value("${approval.publisher.max-delay-millis}") long maxDelayMillis,
+            @Value("${approval.publisher.confirm-timeout-millis}") long confirmTimeoutMillis) {
+        return new ConfirmingPublisher(rabbitTemplate, batchSize, maxDelayMillis, confirmTimeoutMillis);
+    }
+
     @Bean
     public Exchange approvalExchange() {
         return ExchangeBuilder.topicExchange(EXCHANGE_NAME).durable(true).build();
@@ -43,6 +65,49 @@ public class ApprovalProcessingMessagingConfig {
                 .noargs();
     }
 
+    /**
+     * 샤딩 사용 시 샤드별 요청 큐와 바인딩. 모든 샤드를 선언하고, 수신은 이 노드가 맡은 샤드만 한다.
+     */
+    @Bean
+    public Declarables approvalRequestShardQueues(
+            Exchange approvalExchange, @Value("${approval.sharding.shard-count}") int shardCount) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shardCount > 1 && shard < shardCount; shard++) {
+            Queue queue = QueueBuilder.durable(ApprovalSharding.shardQueueName(shard)).build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue)
+                    .to(approvalExchange)
+                    .with(ApprovalSharding.shardRoutingKey(shard))
+                    .noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * ApprovalRequestListener 가 구독할 요청 큐 이름.
+     * 샤딩을 쓰지 않으면 기존 단일 큐, 쓰면 owned-shards 에 지정한 샤드 큐를 구독한다.
+     * 여러 노드가 같은 샤드를 나눠 받으면 한 승인자의 큐가 쪼개지므로, 샤딩을 쓸 때는 owned-shards 를 반드시 지정해야 한다.
+     */
+    @Bean
+    public String[] approvalRequestQueueNames(
+            @Value("${approval.sharding.shard-count}") int shardCount,
+            @Value("${approval.sharding.owned-shards}") List<Integer> ownedShards) {
+        if (shardCount <= 1) {
+            return new String[] {REQUEST_QUEUE_NAME};
+        }
+        if (ownedShards.isEmpty()) {
+            throw new IllegalStateException("approval.sharding.owned-shards is required when shard-count > 1");
+        }
+        return ownedShards.stream()
+                .peek(shard -> {
+                    if (shard < 0 || shard >= shardCount) {
+                        throw new IllegalStateException("owned shard out of range: " + shard);
+                    }
+                })
+                .map(ApprovalSharding::shardQueueName)
+                .toArray(String[]::new);
+    }
+
     @Bean
     public Binding approvalResultBinding(Queue approvalResultQueue, Exchange approvalExchange) {
         return BindingBuilder.bind(approvalResultQueue)
@@ -50,4 +115,25 @@ public class ApprovalProcessingMessagingConfig {
                 .with(ROUTING_KEY_RESULT)
                 .noargs();
     }
+
+    /**
+     * 결과 파티션 큐와 바인딩. 요청 서비스가 아직 떠 있지 않아도 결과가 유실되지 않도록 발행 측에서도 선언한다.
+     * 큐 인자는 요청 서비스 선언과 같아야 한다(single-active-consumer).
+     */
+    @Bean
+    public Declarables approvalResultPartitionQueues(
+            Exchange approvalExchange, @Value("${approval.sharding.result-partitions}") int partitions) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partitions > 1 && partition < partitions; partition++) {
+            Queue queue = QueueBuilder.durable(ApprovalSharding.resultPartitionQueueName(partition))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue)
+                    .to(approvalExchange)
+                    .with(ApprovalSharding.resultPartitionRoutingKey(partition))
+                    .noargs());
+        }
+        return new Declarables(declarables);
+    }
 }
@@ -1,16 +1,20 @@
 package erp.approvalprocessing.messaging;
 
+import static erp.common.messaging.ApprovalMessagingConstants.EXCHANGE_NAME;
 import static erp.common.messaging.ApprovalMessagingConstants.REQUEST_QUEUE_NAME;
 
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import erp.approvalprocessing.service.ApprovalProcessingService;
+import erp.approvalprocessing.service.QueueEntry;
 import erp.common.exception.CustomException;
-import erp.shared.proto.approval.ApprovalRequest;
+import erp.common.messaging.ApprovalSharding;
+import erp.common.messaging.ConfirmingPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,12 +24,21 @@ import lombok.extern.slf4j.Slf4j;
 public class ApprovalRequestListener {
 
     private final ApprovalProcessingService approvalProcessingService;
+    private final ConfirmingPublisher confirmingPublisher;
 
-    @RabbitListener(queues = REQUEST_QUEUE_NAME)
+    @Value("${approval.sharding.shard-count}")
+    private int shardCount;
+
+    @RabbitListener(queues = "#{@approvalRequestQueueNames}")
     public void handleRequest(byte[] payload) {
         try {
-            ApprovalRequest request = ApprovalRequest.parseFrom(payload);
-            approvalProcessingService.acceptRequest(request);
+            // 정렬에 필요한 헤더만 읽고 본문은 바이트 그대로 큐에 보관한다
+            QueueEntry entry = QueueEntry.parse(payload, System.currentTimeMillis());
+            if (entry == null) {
+                log.debug("pending 단계가 없는 결재 요청 메시지를 무시합니다.");
+                return;
+            }
+            approvalProcessingService.acceptRequest(entry);
         } catch (InvalidProtocolBufferException e) {
             log.error("결재 요청 메시지 역직렬화에 실패했습니다.", e);
             throw new AmqpRejectAndDontRequeueException("invalid approval request payload", e);
@@ -33,4 +46,25 @@ public class ApprovalRequestListener {
             log.warn("비즈니스 예외로 요청 메시지를 무시합니다: {}", e.getErrorCode());
         }
     }
+
+    /**
+     * 샤딩 전환 전에 기존 단일 큐로 발행된 요청을 승인자의 샤드 큐로 옮긴다. 샤딩을 쓸 때만 구독한다.
+     * 브로커 확인을 받은 뒤에 ack 하므로 옮기는 도중 실패하면 메시지는 기존 큐에 남는다.
+     */
+    @RabbitListener(queues = REQUEST_QUEUE_NAME, autoStartup = "#{${approval.sharding.shard-count} > 1}")
+    public void drainLegacyRequest(byte[] payload) {
+        QueueEntry entry;
+        try {
+            entry = QueueEntry.parse(payload, System.currentTimeMillis());
+        } catch (InvalidProtocolBufferException e) {
+            log.error("기존 요청 큐의 메시지 역직렬화에 실패했습니다.", e);
+            throw new AmqpRejectAndDontRequeueException("invalid approval request payload", e);
+        }
+        if (entry == null) {
+            return;
+        }
+        confirmingPublisher.publish(
+                        EXCHANGE_NAME, ApprovalSharding.requestRoutingKey(entry.approverId(), shardCount), payload)
+                .join();
+    }
 }
@@ -1,31 +1,49 @@
 package erp.approvalprocessing.service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import erp.approvalprocessing.dto.ApprovalQueueItemResponse;
+import erp.approvalprocessing.dto.ApprovalQueuePageResponse;
+import erp.approvalprocessing.dto.ApprovalQueueSummaryResponse;
+import erp.approvalprocessing.dto.BatchDecisionRequest;
+import erp.approvalprocessing.dto.BatchDecisionResponse;
+import erp.approvalprocessing.dto.BatchDecisionResponse.Outcome;
+import erp.approvalprocessing.stream.ApprovalQueueEventHub;
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
 import erp.common.security.AuthUtil;
 import erp.common.security.Role;
 import erp.common.messaging.ApprovalMessagingConstants;
+import erp.common.messaging.ApprovalSharding;
+import erp.common.messaging.ConfirmingPublisher;
+import erp.common.messaging.ConfirmingPublisher.Outbound;
 import erp.shared.proto.approval.ApprovalRequest;
 import erp.shared.proto.approval.ApprovalResultRequest;
 import erp.shared.proto.approval.ApprovalResultStatus;
-import erp.shared.proto.approval.Step;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ApprovalProcessingService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final ApprovalQueueService approvalQueueService;
+    private final ApprovalQueueEventHub approvalQueueEventHub;
     private final AuthUtil authUtil;
-    private final RabbitTemplate rabbitTemplate;
+    private final ConfirmingPublisher confirmingPublisher;
 
     @Value("${approval-request.retry.max-attempts}")
     private int approvalRequestMaxAttempts;
@@ -33,60 +51,129 @@ public class ApprovalProcessingService {
     @Value("${approval-request.retry.backoff-millis}")
     private long approvalRequestBackoffMillis;
 
+    @Value("${approval.sharding.result-partitions}")
+    private int resultPartitions;
+
     public List<ApprovalQueueItemResponse> getQueue(Long approverId) {
         enforceAccess(approverId);
         List<ApprovalRequest> queue = approvalQueueService.getQueue(approverId);
         return ApprovalQueueItemResponse.fromList(queue);
     }
 
-    public void handle(Long approverId, Long requestId, ApprovalResultStatus status) {
+    public ApprovalQueuePageResponse getQueuePage(Long approverId, int limit, String after, boolean includeSteps) {
         enforceAccess(approverId);
-        validateStatus(status);
-
-        List<ApprovalRequest> queueSnapshot = approvalQueueService.getQueue(approverId);
-        if (queueSnapshot.isEmpty()) {
-            throw new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
-        }
-        ApprovalRequest head = queueSnapshot.getFirst();
-        if (head.getRequestId() != requestId) {
-            throw new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
         }
+        QueueCursor cursor = after == null || after.isBlank() ? null : QueueCursor.decode(after);
 
-        ApprovalRequest queued = approvalQueueService.remove(approverId, requestId);
-        if (queued == null) {
-            throw new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
-        }
+        // 다음 페이지 존재 여부를 알기 위해 하나 더 읽는다
+        List<QueueEntry> entries = approvalQueueService.page(approverId, cursor, limit + 1);
+        boolean hasNext = entries.size() > limit;
+        List<QueueEntry> page = hasNext ? entries.subList(0, limit) : entries;
 
-        Step targetStep = findPendingStep(queued, approverId);
+        List<ApprovalQueueSummaryResponse> items = page.stream()
+                .map(entry -> ApprovalQueueSummaryResponse.from(entry, includeSteps))
+                .toList();
+        String nextCursor = hasNext ? QueueCursor.of(page.getLast()).encode() : null;
+        return new ApprovalQueuePageResponse(items, nextCursor);
+    }
+
+    /**
+     * 승인자 큐 변경 구독. 첫 이벤트로 현재 스냅샷을 보내고, 이후에는 추가/제거 증분만 보낸다.
+     */
+    public SseEmitter subscribe(Long approverId) {
+        enforceAccess(approverId);
+        return approvalQueueService.subscribe(
+                approverId, snapshot -> approvalQueueEventHub.register(approverId, snapshot));
+    }
+
+    public void handle(Long approverId, Long requestId, ApprovalResultStatus status) {
+        enforceAccess(approverId);
+        validateStatus(status);
+
+        QueueEntry queued = approvalQueueService.pollIfHead(approverId, requestId);
 
         ApprovalResultRequest resultRequest = ApprovalResultRequest.newBuilder()
                 .setApproverId(approverId)
                 .setRequestId(requestId)
-                .setStep(targetStep.getStep())
+                .setStep(queued.step())
                 .setStatus(status)
                 .build();
 
         callReturnWithRetry(resultRequest);
     }
 
+    /**
+     * 요청 순서대로 큐 맨 앞과 대조해 꺼내고, 꺼낸 건들의 결과를 한 번에 확인 발행한다.
+     * 끝내 확인받지 못한 건만 큐에 되돌려 다시 처리할 수 있게 한다. 확인된 건은 되돌리지 않는다.
+     */
+    public BatchDecisionResponse handleBatch(Long approverId, List<BatchDecisionRequest.Decision> decisions) {
+        enforceAccess(approverId);
+        if (decisions == null || decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+
+        Outcome[] outcomes = new Outcome[decisions.size()];
+        List<Integer> polledIndexes = new ArrayList<>();
+        List<QueueEntry> polled = new ArrayList<>();
+        List<ApprovalResultRequest> results = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BatchDecisionRequest.Decision decision = decisions.get(i);
+            try {
+                validateStatus(decision.status());
+                if (decision.requestId() == null) {
+                    throw new CustomException(ErrorCode.BAD_REQUEST);
+                }
+                QueueEntry queued = approvalQueueService.pollIfHead(approverId, decision.requestId());
+                polledIndexes.add(i);
+                polled.add(queued);
+                results.add(ApprovalResultRequest.newBuilder()
+                        .setApproverId(approverId)
+                        .setRequestId(queued.requestId())
+                        .setStep(queued.step())
+                        .setStatus(decision.status())
+                        .build());
+            } catch (CustomException e) {
+                outcomes[i] = Outcome.failed(decision.requestId(), e.getErrorCode());
+            }
+        }
+
+        if (!results.isEmpty()) {
+            boolean[] confirmed = callReturnBatchWithRetry(results);
+            int failed = 0;
+            for (int i = 0; i < polledIndexes.size(); i++) {
+                int index = polledIndexes.get(i);
+                Long requestId = decisions.get(index).requestId();
+                if (confirmed[i]) {
+                    outcomes[index] = Outcome.accepted(requestId);
+                } else {
+                    approvalQueueService.enqueue(polled.get(i));
+                    outcomes[index] = Outcome.failed(requestId, ErrorCode.APPROVAL_PROCESS_PUBLISH_FAILED);
+                    failed++;
+                }
+            }
+            if (failed > 0) {
+                log.error("결재 결과 {}건을 발행하지 못해 큐에 되돌렸습니다. approverId={}", failed, approverId);
+            }
+        }
+        return new BatchDecisionResponse(List.of(outcomes));
+    }
+
     public void acceptRequest(ApprovalRequest request) {
         approvalQueueService.enqueue(request);
     }
 
+    public void acceptRequest(QueueEntry entry) {
+        approvalQueueService.enqueue(entry);
+    }
+
     private void validateStatus(ApprovalResultStatus status) {
         if (status == null || status == ApprovalResultStatus.APPROVAL_RESULT_STATUS_UNSPECIFIED) {
             throw new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
         }
     }
 
-    private Step findPendingStep(ApprovalRequest queued, Long approverId) {
-        return queued.getStepsList().stream()
-                .filter(s -> s.getStatus() == erp.shared.proto.approval.StepStatus.STEP_STATUS_PENDING)
-                .filter(s -> s.getApproverId() == approverId)
-                .min(Comparator.comparingInt(Step::getStep))
-                .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS));
-    }
-
     private void enforceAccess(Long approverId) {
         if (authUtil.hasRole(Role.ADMIN)) {
             return;
@@ -96,24 +183,76 @@ public class ApprovalProcessingService {
         }
     }
 
+    /**
+     * 결과를 requestId 의 파티션으로 발행하고 브로커 확인(publisher confirm)을 기다린다.
+     * 동시에 들어온 결과들은 발행기가 묶어서 보낸다.
+     */
     private void callReturnWithRetry(ApprovalResultRequest request) {
+        withRetry(() -> confirmingPublisher.publish(
+                        ApprovalMessagingConstants.EXCHANGE_NAME,
+                        ApprovalSharding.resultRoutingKey(request.getRequestId(), resultPartitions),
+                        request.toByteArray())
+                .join());
+    }
+
+    /**
+     * 여러 결과를 한 채널에서 연속 발행하고 메시지별 브로커 확인을 기다린다.
+     * 재시도 때는 아직 확인받지 못한 메시지만 다시 보낸다.
+     *
+     * @return requests 와 같은 순서의 확인 여부
+     */
+    private boolean[] callReturnBatchWithRetry(List<ApprovalResultRequest> requests) {
+        List<Outbound> messages = requests.stream()
+                .map(request -> new Outbound(
+                        ApprovalMessagingConstants.EXCHANGE_NAME,
+                        ApprovalSharding.resultRoutingKey(request.getRequestId(), resultPartitions),
+                        request.toByteArray()))
+                .toList();
+        boolean[] confirmed = new boolean[messages.size()];
+        List<Integer> pending = IntStream.range(0, messages.size()).boxed().toList();
+        for (int attempt = 1; ; attempt++) {
+            List<CompletableFuture<Void>> futures;
+            try {
+                futures = confirmingPublisher.publishEach(pending.stream().map(messages::get).toList());
+            } catch (RuntimeException e) {
+                futures = pending.stream().map(index -> CompletableFuture.<Void>failedFuture(e)).toList();
+            }
+            List<Integer> unconfirmed = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    futures.get(i).join();
+                    confirmed[pending.get(i)] = true;
+                } catch (CompletionException | CancellationException e) {
+                    unconfirmed.add(pending.get(i));
+                }
+            }
+            if (unconfirmed.isEmpty() || attempt >= approvalRequestMaxAttempts) {
+                return confirmed;
+            }
+            pending = unconfirmed;
+            sleepBackoff();
+        }
+    }
+
+    private void withRetry(Runnable publish) {
         for (int attempt = 1; attempt <= Math.max(1, approvalRequestMaxAttempts); attempt++) {
             try {
-                rabbitTemplate.convertAndSend(
-                        ApprovalMessagingConstants.EXCHANGE_NAME,
-                        ApprovalMessagingConstants.ROUTING_KEY_RESULT,
-                        request.toByteArray());
+                publish.run();
                 return;
-            } catch (Exception e) {
-                if (attempt == approvalRequestMaxAttempts) {
+            } catch (RuntimeException e) {
+                if (attempt >= approvalRequestMaxAttempts) {
                     throw e;
                 }
-                try {
-                    Thread.sleep(approvalRequestBackoffMillis);
-                } catch (InterruptedException ignored) {
-                    Thread.currentThread().interrupt();
-                }
+                sleepBackoff();
             }
         }
     }
+
+    private void sleepBackoff() {
+        try {
+            Thread.sleep(approvalRequestBackoffMillis);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
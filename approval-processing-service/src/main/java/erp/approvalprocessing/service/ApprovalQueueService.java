@@ -1,91 +1,101 @@
 package erp.approvalprocessing.service;
 
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
 import erp.shared.proto.approval.ApprovalRequest;
-import erp.shared.proto.approval.Step;
-import erp.shared.proto.approval.StepStatus;
+import lombok.RequiredArgsConstructor;
 
 @Service
+@RequiredArgsConstructor
 public class ApprovalQueueService {
 
-    private final Map<Long, List<ApprovalRequest>> queueByApprover = new ConcurrentHashMap<>();
+    private final Map<Long, ApproverQueue> queueByApprover = new ConcurrentHashMap<>();
+    private final QueueJournal journal;
+    private final QueueChangeListener listener;
 
     public void enqueue(ApprovalRequest request) {
-        Step next = request.getStepsList().stream()
-                .filter(step -> step.getStatus() == StepStatus.STEP_STATUS_PENDING)
-                .min(Comparator.comparingInt(Step::getStep))
-                .orElse(null);
+        enqueue(QueueEntry.of(request, System.currentTimeMillis()));
+    }
 
-        if (next == null) {
+    public void enqueue(QueueEntry entry) {
+        if (entry == null) {
             return;
         }
+        queueFor(entry.approverId()).put(entry);
+    }
 
-        List<ApprovalRequest> queue = queueByApprover.computeIfAbsent(
-                next.getApproverId(), k -> Collections.synchronizedList(new LinkedList<>()));
-
-        synchronized (queue) {
-            queue.removeIf(req -> req.getRequestId() == request.getRequestId());
-            int insertIdx = 0;
-            while (insertIdx < queue.size()) {
-                ApprovalRequest existing = queue.get(insertIdx);
-                if (comparePriority(request, existing) <= 0) {
-                    break;
-                }
-                insertIdx++;
-            }
-            queue.add(insertIdx, request);
+    public List<ApprovalRequest> getQueue(Long approverId) {
+        ApproverQueue queue = queueByApprover.get(approverId);
+        if (queue == null) {
+            return List.of();
         }
+        return queue.snapshot().stream().map(QueueEntry::request).toList();
     }
 
-    public List<ApprovalRequest> getQueue(Long approverId) {
-        List<ApprovalRequest> queue = queueByApprover.getOrDefault(approverId, List.of());
-        return List.copyOf(queue);
+    public List<QueueEntry> page(Long approverId, QueueCursor after, int limit) {
+        ApproverQueue queue = queueByApprover.get(approverId);
+        return queue == null ? List.of() : queue.page(after, limit);
+    }
+
+    public QueueEntry pollIfHead(Long approverId, Long requestId) {
+        ApproverQueue queue = queueByApprover.get(approverId);
+        if (queue == null) {
+            throw new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
+        }
+        return queue.pollIfHead(requestId);
     }
 
     public ApprovalRequest remove(Long approverId, Long requestId) {
-        List<ApprovalRequest> queue = queueByApprover.get(approverId);
+        ApproverQueue queue = queueByApprover.get(approverId);
         if (queue == null) {
             return null;
         }
+        QueueEntry removed = queue.remove(requestId);
+        return removed == null ? null : removed.request();
+    }
 
-        synchronized (queue) {
-            Iterator<ApprovalRequest> iterator = queue.iterator();
-            while (iterator.hasNext()) {
-                ApprovalRequest req = iterator.next();
-                if (req.getRequestId() == requestId) {
-                    iterator.remove();
-                    return req;
-                }
-            }
-        }
-        return null;
+    /**
+     * 승인자 큐의 현재 스냅샷으로 구독을 등록한다. 등록 이후의 변경은 QueueChangeListener 로 이어서 전달된다.
+     */
+    public <T> T subscribe(Long approverId, Function<List<QueueEntry>, T> onSnapshot) {
+        return queueFor(approverId).subscribe(onSnapshot);
+    }
+
+    /**
+     * 저널 스냅샷용. 모든 승인자 큐의 항목을 모아 반환한다.
+     */
+    public List<QueueEntry> entries() {
+        List<QueueEntry> entries = new ArrayList<>();
+        queueByApprover.values().forEach(queue -> entries.addAll(queue.snapshot()));
+        return entries;
     }
 
-    private int comparePriority(ApprovalRequest a, ApprovalRequest b) {
-        // 우선순위: step 번호 오름차순 -> requestId 오름차순
-        int stepA = a.getStepsList().stream()
-                .filter(s -> s.getStatus() == StepStatus.STEP_STATUS_PENDING)
-                .min(Comparator.comparingInt(Step::getStep))
-                .map(Step::getStep)
-                .orElse(Integer.MAX_VALUE);
-        int stepB = b.getStepsList().stream()
-                .filter(s -> s.getStatus() == StepStatus.STEP_STATUS_PENDING)
-                .min(Comparator.comparingInt(Step::getStep))
-                .map(Step::getStep)
-                .orElse(Integer.MAX_VALUE);
-
-        if (stepA != stepB) {
-            return Integer.compare(stepA, stepB);
+    /**
+     * 저널 복구용. 저널에 다시 기록하지 않고 큐에 반영한다.
+     */
+    public void restore(QueueEntry entry) {
+        queueFor(entry.approverId()).restore(entry);
+    }
+
+    /**
+     * 저널 복구용. 저널에 다시 기록하지 않고 큐에서 제거한다.
+     */
+    public void restoreRemove(long approverId, long requestId) {
+        ApproverQueue queue = queueByApprover.get(approverId);
+        if (queue != null) {
+            queue.restoreRemove(requestId);
         }
-        return Long.compare(a.getRequestId(), b.getRequestId());
+    }
+
+    private ApproverQueue queueFor(long approverId) {
+        return queueByApprover.computeIfAbsent(approverId, id -> new ApproverQueue(id, journal, listener));
     }
 }
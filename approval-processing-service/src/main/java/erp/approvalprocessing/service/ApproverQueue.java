@@ -0,0 +1,142 @@
+package erp.approvalprocessing.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
+
+/**
+ * 승인자 한 명의 대기열.
+ * (pending step, requestId) 순으로 정렬된 TreeSet 과 requestId 인덱스를 함께 유지해
+ * 삽입/삭제는 O(log n), 맨 앞 조회는 O(1) 로 처리한다.
+ */
+final class ApproverQueue {
+
+    private final long approverId;
+    private final QueueJournal journal;
+    private final QueueChangeListener listener;
+
+    private final NavigableSet<QueueEntry> ordered = new TreeSet<>(QueueEntry.PRIORITY);
+    private final Map<Long, QueueEntry> entryByRequestId = new HashMap<>();
+
+    private QueueEntry head;
+
+    ApproverQueue(long approverId, QueueJournal journal, QueueChangeListener listener) {
+        this.approverId = approverId;
+        this.journal = journal;
+        this.listener = listener;
+    }
+
+    synchronized void put(QueueEntry entry) {
+        journal.appendEnqueue(entry);
+        putInternal(entry);
+        listener.added(entry);
+    }
+
+    /**
+     * 저널 복구용. 저널에 다시 기록하지 않고 메모리에만 반영한다.
+     */
+    synchronized void restore(QueueEntry entry) {
+        putInternal(entry);
+    }
+
+    synchronized QueueEntry remove(long requestId) {
+        if (!entryByRequestId.containsKey(requestId)) {
+            return null;
+        }
+        journal.appendRemove(approverId, requestId);
+        QueueEntry removed = removeInternal(requestId);
+        listener.removed(approverId, requestId);
+        return removed;
+    }
+
+    /**
+     * 저널 복구용. 저널에 다시 기록하지 않고 메모리에서만 제거한다.
+     */
+    synchronized void restoreRemove(long requestId) {
+        removeInternal(requestId);
+    }
+
+    /**
+     * 맨 앞 요청이 requestId 와 일치할 때만 꺼낸다. 확인과 제거를 한 번의 잠금 안에서 수행해
+     * 동일 요청에 대한 중복 처리 경쟁을 막는다.
+     */
+    synchronized QueueEntry pollIfHead(long requestId) {
+        if (head == null) {
+            throw new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
+        }
+        if (head.requestId() != requestId) {
+            throw new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
+        }
+        journal.appendRemove(approverId, requestId);
+        QueueEntry polled = head;
+        entryByRequestId.remove(requestId);
+        ordered.pollFirst();
+        refreshHead();
+        listener.removed(approverId, requestId);
+        return polled;
+    }
+
+    synchronized List<QueueEntry> snapshot() {
+        return List.copyOf(ordered);
+    }
+
+    /**
+     * 현재 스냅샷을 넘겨 구독을 등록한다. 변경 통보와 같은 잠금 안에서 실행되므로
+     * 구독자는 스냅샷 이후의 변경을 빠짐없이, 순서대로 받는다.
+     */
+    synchronized <T> T subscribe(Function<List<QueueEntry>, T> onSnapshot) {
+        return onSnapshot.apply(List.copyOf(ordered));
+    }
+
+    /**
+     * after 위치 바로 뒤부터 최대 limit 개를 우선순위 순으로 반환한다. after 가 null 이면 맨 앞부터.
+     */
+    synchronized List<QueueEntry> page(QueueCursor after, int limit) {
+        Iterable<QueueEntry> source = after == null ? ordered : ordered.tailSet(after.toKey(), false);
+        List<QueueEntry> page = new ArrayList<>(Math.min(limit, ordered.size()));
+        for (QueueEntry entry : source) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(entry);
+        }
+        return page;
+    }
+
+    private void putInternal(QueueEntry entry) {
+        QueueEntry previous = entryByRequestId.put(entry.requestId(), entry);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+        ordered.add(entry);
+
+        if (previous != null && previous == head) {
+            refreshHead();
+        } else if (head == null || QueueEntry.PRIORITY.compare(entry, head) <= 0) {
+            head = entry;
+        }
+    }
+
+    private QueueEntry removeInternal(long requestId) {
+        QueueEntry removed = entryByRequestId.remove(requestId);
+        if (removed == null) {
+            return null;
+        }
+        ordered.remove(removed);
+        if (removed == head) {
+            refreshHead();
+        }
+        return removed;
+    }
+
+    private void refreshHead() {
+        head = ordered.isEmpty() ? null : ordered.first();
+    }
+}
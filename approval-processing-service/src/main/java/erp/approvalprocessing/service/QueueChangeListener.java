@@ -0,0 +1,22 @@
+package erp.approvalprocessing.service;
+
+/**
+ * 승인자 큐의 추가/제거를 통보받는 리스너.
+ * 큐 잠금 안에서 메모리 변경 직후 호출되므로, 구현은 블로킹 없이 빠르게 반환해야 한다.
+ */
+public interface QueueChangeListener {
+
+    QueueChangeListener NOOP = new QueueChangeListener() {
+        @Override
+        public void added(QueueEntry entry) {
+        }
+
+        @Override
+        public void removed(long approverId, long requestId) {
+        }
+    };
+
+    void added(QueueEntry entry);
+
+    void removed(long approverId, long requestId);
+}
@@ -0,0 +1,39 @@
+package erp.approvalprocessing.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
+
+/**
+ * 승인자 큐 페이지 조회 커서. 마지막으로 받은 항목의 (step, requestId) 를 가리키며,
+ * 다음 페이지는 이 위치 바로 뒤부터 시작한다. 클라이언트에는 불투명한 문자열로만 노출한다.
+ */
+public record QueueCursor(int step, long requestId) {
+
+    public static QueueCursor of(QueueEntry entry) {
+        return new QueueCursor(entry.step(), entry.requestId());
+    }
+
+    public static QueueCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.US_ASCII);
+            int separator = decoded.indexOf(':');
+            return new QueueCursor(
+                    Integer.parseInt(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((step + ":" + requestId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    QueueEntry toKey() {
+        return new QueueEntry(requestId, step, 0L, 0L, null);
+    }
+}
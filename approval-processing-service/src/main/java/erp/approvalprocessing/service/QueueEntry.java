@@ -0,0 +1,135 @@
+package erp.approvalprocessing.service;
+
+import java.io.IOException;
+import java.util.Comparator;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import erp.shared.proto.approval.ApprovalRequest;
+import erp.shared.proto.approval.Step;
+import erp.shared.proto.approval.StepStatus;
+
+/**
+ * 승인자 큐에 저장되는 항목.
+ * 정렬/처리에 필요한 값(requestId, pending step, approverId, 등록 시각)만 추출해 두고
+ * 본문(title, content, steps)은 수신한 protobuf 바이트 그대로 보관했다가 조회 시점에만 파싱한다.
+ */
+public record QueueEntry(
+        long requestId,
+        int step,
+        long approverId,
+        long enqueuedAt,
+        byte[] payload) {
+
+    // 우선순위: step 번호 오름차순 -> requestId 오름차순
+    static final Comparator<QueueEntry> PRIORITY = (a, b) -> {
+        if (a.step != b.step) {
+            return Integer.compare(a.step, b.step);
+        }
+        return Long.compare(a.requestId, b.requestId);
+    };
+
+    private static final int REQUEST_ID_TAG = tag(ApprovalRequest.REQUESTID_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int TITLE_TAG = tag(ApprovalRequest.TITLE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int CONTENT_TAG = tag(ApprovalRequest.CONTENT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int STEPS_TAG = tag(ApprovalRequest.STEPS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int STEP_NUMBER_TAG = tag(Step.STEP_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int STEP_APPROVER_TAG = tag(Step.APPROVERID_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int STEP_STATUS_TAG = tag(Step.STATUS_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+
+    /**
+     * 이미 파싱된 요청으로 항목을 만든다. pending 단계가 없으면 null 을 반환한다.
+     */
+    public static QueueEntry of(ApprovalRequest request, long enqueuedAt) {
+        Step next = null;
+        for (Step step : request.getStepsList()) {
+            if (step.getStatus() == StepStatus.STEP_STATUS_PENDING
+                    && (next == null || step.getStep() < next.getStep())) {
+                next = step;
+            }
+        }
+        if (next == null) {
+            return null;
+        }
+        return new QueueEntry(request.getRequestId(), next.getStep(), next.getApproverId(),
+                enqueuedAt, request.toByteArray());
+    }
+
+    /**
+     * ApprovalRequest 바이트에서 requestId 와 가장 앞선 pending step 만 읽어 항목을 만든다.
+     * title/content 는 객체로 만들지 않고 UTF-8 유효성만 확인한다. pending 단계가 없으면 null 을 반환한다.
+     */
+    public static QueueEntry parse(byte[] payload, long enqueuedAt) throws InvalidProtocolBufferException {
+        CodedInputStream input = CodedInputStream.newInstance(payload);
+        input.enableAliasing(true);
+
+        long requestId = 0L;
+        int pendingStep = 0;
+        long pendingApproverId = 0L;
+        boolean found = false;
+        try {
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == REQUEST_ID_TAG) {
+                    requestId = input.readInt64();
+                } else if (tag == TITLE_TAG || tag == CONTENT_TAG) {
+                    if (!input.readBytes().isValidUtf8()) {
+                        throw new InvalidProtocolBufferException("Protocol message had invalid UTF-8.");
+                    }
+                } else if (tag == STEPS_TAG) {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    int step = 0;
+                    long approverId = 0L;
+                    int status = 0;
+                    int stepTag;
+                    while ((stepTag = input.readTag()) != 0) {
+                        if (stepTag == STEP_NUMBER_TAG) {
+                            step = input.readInt32();
+                        } else if (stepTag == STEP_APPROVER_TAG) {
+                            approverId = input.readInt64();
+                        } else if (stepTag == STEP_STATUS_TAG) {
+                            status = input.readEnum();
+                        } else if (!input.skipField(stepTag)) {
+                            break;
+                        }
+                    }
+                    input.popLimit(limit);
+                    if (status == StepStatus.STEP_STATUS_PENDING_VALUE && (!found || step < pendingStep)) {
+                        pendingStep = step;
+                        pendingApproverId = approverId;
+                        found = true;
+                    }
+                } else if (!input.skipField(tag)) {
+                    break;
+                }
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new InvalidProtocolBufferException(e);
+        }
+
+        if (!found) {
+            return null;
+        }
+        return new QueueEntry(requestId, pendingStep, pendingApproverId, enqueuedAt, payload);
+    }
+
+    /**
+     * 보관 중인 바이트를 전체 메시지로 파싱한다. 조회 응답을 만들 때만 호출한다.
+     */
+    public ApprovalRequest request() {
+        try {
+            return ApprovalRequest.parseFrom(payload);
+        } catch (InvalidProtocolBufferException e) {
+            // 큐에 넣기 전에 parse 로 검증한 바이트이므로 발생하지 않아야 한다
+            throw new IllegalStateException("queued approval request payload is corrupted", e);
+        }
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+}
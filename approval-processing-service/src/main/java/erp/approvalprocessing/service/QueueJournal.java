@@ -0,0 +1,23 @@
+package erp.approvalprocessing.service;
+
+/**
+ * 승인자 큐 변경 이벤트를 기록하는 저널.
+ * 큐 잠금 안에서 메모리 변경보다 먼저 호출되므로, 기록이 예외를 던지면 큐 상태도 바뀌지 않는다.
+ * 디스크 장애처럼 반복될 실패는 예외 대신 구현이 스스로 처리한다(MappedQueueJournal 은 메모리 전용으로 전환한다).
+ */
+public interface QueueJournal {
+
+    QueueJournal NOOP = new QueueJournal() {
+        @Override
+        public void appendEnqueue(QueueEntry entry) {
+        }
+
+        @Override
+        public void appendRemove(long approverId, long requestId) {
+        }
+    };
+
+    void appendEnqueue(QueueEntry entry);
+
+    void appendRemove(long approverId, long requestId);
+}
@@ -0,0 +1,168 @@
+package erp.approvalprocessing.stream;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import erp.approvalprocessing.dto.ApprovalQueueRemovedEvent;
+import erp.approvalprocessing.dto.ApprovalQueueSummaryResponse;
+import erp.approvalprocessing.service.QueueChangeListener;
+import erp.approvalprocessing.service.QueueEntry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 승인자 큐 변경을 SSE 구독자에게 증분(added/removed)으로 전달한다.
+ * 큐 잠금 안에서는 구독자별 대기열에 넣기만 하고, 실제 전송은 별도 스레드에서 구독자별로 순서대로 한다.
+ * 대기열이 가득 찬 느린 구독자는 연결을 끊어, 재연결 시 새 스냅샷부터 다시 받게 한다.
+ */
+@Slf4j
+@Component
+public class ApprovalQueueEventHub implements QueueChangeListener {
+
+    static final String EVENT_SNAPSHOT = "snapshot";
+    static final String EVENT_ADDED = "added";
+    static final String EVENT_REMOVED = "removed";
+
+    private final Map<Long, Set<Subscription>> subscriptionsByApprover = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${approval.events.timeout-millis}")
+    private long timeoutMillis;
+
+    @Value("${approval.events.max-pending-events}")
+    private int maxPendingEvents;
+
+    /**
+     * 스냅샷 이벤트를 첫 이벤트로 하는 구독을 등록한다. ApprovalQueueService.subscribe 의 잠금 안에서 호출된다.
+     */
+    public SseEmitter register(long approverId, List<QueueEntry> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(approverId, emitter);
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        subscriptionsByApprover.computeIfAbsent(approverId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscription.offer(() -> SseEmitter.event()
+                .name(EVENT_SNAPSHOT)
+                .data(snapshot.stream().map(entry -> ApprovalQueueSummaryResponse.from(entry, false)).toList()));
+        return emitter;
+    }
+
+    @Override
+    public void added(QueueEntry entry) {
+        forEachSubscription(entry.approverId(), () -> SseEmitter.event()
+                .name(EVENT_ADDED)
+                .data(ApprovalQueueSummaryResponse.from(entry, false)));
+    }
+
+    @Override
+    public void removed(long approverId, long requestId) {
+        forEachSubscription(approverId, () -> SseEmitter.event()
+                .name(EVENT_REMOVED)
+                .data(new ApprovalQueueRemovedEvent(requestId)));
+    }
+
+    int subscriptionCount(long approverId) {
+        Set<Subscription> subscriptions = subscriptionsByApprover.get(approverId);
+        return subscriptions == null ? 0 : subscriptions.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptionsByApprover.values().forEach(subscriptions -> subscriptions.forEach(Subscription::close));
+        sender.shutdown();
+    }
+
+    private void forEachSubscription(long approverId, Supplier<SseEventBuilder> event) {
+        Set<Subscription> subscriptions = subscriptionsByApprover.get(approverId);
+        if (subscriptions == null) {
+            return;
+        }
+        subscriptions.forEach(subscription -> subscription.offer(event));
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptionsByApprover.computeIfPresent(subscription.approverId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private final class Subscription implements Runnable {
+
+        private final long approverId;
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEventBuilder>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscription(long approverId, SseEmitter emitter) {
+            this.approverId = approverId;
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEventBuilder> event) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPendingEvents) {
+                log.warn("승인자 큐 구독 대기 이벤트가 {}건을 넘어 연결을 끊습니다. approverId={}", maxPendingEvents, approverId);
+                close();
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unregister(this);
+            emitter.complete();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Supplier<SseEventBuilder> event;
+                while (!closed && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event.get());
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("승인자 큐 구독 전송 실패로 연결을 정리합니다. approverId={}", approverId);
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
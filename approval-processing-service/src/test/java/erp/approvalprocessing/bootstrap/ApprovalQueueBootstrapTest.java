@@ -0,0 +1,95 @@
+package erp.approvalprocessing.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import erp.approvalprocessing.client.ApprovalRequestClient;
+import erp.approvalprocessing.service.ApprovalQueueService;
+import erp.approvalprocessing.service.QueueChangeListener;
+import erp.approvalprocessing.service.QueueJournal;
+import erp.shared.proto.approval.ApprovalRequest;
+import erp.shared.proto.approval.Step;
+import erp.shared.proto.approval.StepStatus;
+
+class ApprovalQueueBootstrapTest {
+
+    ApprovalRequestClient approvalRequestClient = Mockito.mock(ApprovalRequestClient.class);
+    ApprovalQueueService approvalQueueService = new ApprovalQueueService(QueueJournal.NOOP, QueueChangeListener.NOOP);
+    ApprovalQueueBootstrap bootstrap = new ApprovalQueueBootstrap(approvalRequestClient, approvalQueueService);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bootstrap, "shardCount", 1);
+        ReflectionTestUtils.setField(bootstrap, "ownedShards", List.of());
+        ReflectionTestUtils.setField(bootstrap, "maxAttempts", 2);
+        ReflectionTestUtils.setField(bootstrap, "backoffMillis", 1L);
+        ReflectionTestUtils.setField(bootstrap, "failOnError", true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 스트림으로_받은_진행중_결재를_큐에_복구한다() {
+        // given
+        ApprovalRequest request = ApprovalRequest.newBuilder()
+                .setRequestId(1L)
+                .addSteps(Step.newBuilder()
+                        .setStep(1)
+                        .setApproverId(7L)
+                        .setStatus(StepStatus.STEP_STATUS_PENDING)
+                        .build())
+                .build();
+        when(approvalRequestClient.streamPending(anyInt(), anyList(), any())).thenAnswer(invocation -> {
+            Consumer<byte[]> handler = invocation.getArgument(2);
+            handler.accept(request.toByteArray());
+            handler.accept("bad".getBytes());
+            return 2;
+        });
+
+        // when
+        bootstrap.start();
+
+        // then
+        assertThat(approvalQueueService.getQueue(7L)).containsExactly(request);
+        assertThat(bootstrap.isRunning()).isTrue();
+    }
+
+    @Test
+    void 복구가_계속_실패하면_기동을_실패시킨다() {
+        // given
+        when(approvalRequestClient.streamPending(anyInt(), anyList(), any()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        // when & then
+        assertThatThrownBy(() -> bootstrap.start()).isInstanceOf(IllegalStateException.class);
+        verify(approvalRequestClient, times(2)).streamPending(anyInt(), anyList(), any());
+        assertThat(bootstrap.isRunning()).isFalse();
+    }
+
+    @Test
+    void fail_on_error를_끄면_복구가_계속_실패해도_기동을_막지_않는다() {
+        // given
+        ReflectionTestUtils.setField(bootstrap, "failOnError", false);
+        when(approvalRequestClient.streamPending(anyInt(), anyList(), any()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        // when & then
+        assertThatCode(() -> bootstrap.start()).doesNotThrowAnyException();
+        verify(approvalRequestClient, times(2)).streamPending(anyInt(), anyList(), any());
+        assertThat(bootstrap.isRunning()).isTrue();
+    }
+}
@@ -28,6 +28,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 
 import erp.approvalprocessing.dto.ApprovalQueueItemResponse;
+import erp.approvalprocessing.dto.ApprovalQueuePageResponse;
+import erp.approvalprocessing.dto.ApprovalQueueSummaryResponse;
+import erp.approvalprocessing.dto.BatchDecisionRequest;
+import erp.approvalprocessing.dto.BatchDecisionResponse;
 import erp.approvalprocessing.service.ApprovalProcessingService;
 import erp.common.exception.GlobalExceptionHandler;
 import erp.common.exception.CustomException;
@@ -98,6 +102,23 @@ class ApprovalProcessingControllerTest {
                     .andExpect(status().isForbidden())
                     .andExpect(jsonPath("$.errorCodeName").value("FORBIDDEN"));
         }
+
+        @Test
+        @DisplayName("limit 파라미터가 있으면 요약 페이지로 응답한다")
+        void pageWhenLimitGiven() throws Exception {
+            // given
+            ApprovalQueueSummaryResponse item = new ApprovalQueueSummaryResponse(1L, 5L, "title", 1, 0L, null);
+            when(approvalProcessingService.getQueuePage(99L, 20, "abc", false))
+                    .thenReturn(new ApprovalQueuePageResponse(List.of(item), "next"));
+
+            // when & then
+            mockMvc.perform(get("/process/{approverId}", 99L).param("limit", "20").param("after", "abc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].requestId").value(1))
+                    .andExpect(jsonPath("$.items[0].content").doesNotExist())
+                    .andExpect(jsonPath("$.items[0].steps").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor").value("next"));
+        }
     }
 
     @Nested
@@ -174,6 +195,25 @@ class ApprovalProcessingControllerTest {
                     .andExpect(jsonPath("$.errorCodeName").value("APPROVAL_PROCESS_INVALID_STATUS"));
         }
 
+        @Test
+        @DisplayName("batch 경로는 일괄 처리로 라우팅되고 건별 결과를 반환한다")
+        void handleBatch() throws Exception {
+            // given
+            when(approvalProcessingService.handleBatch(1L, List.of(
+                    new BatchDecisionRequest.Decision(10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED))))
+                    .thenReturn(new BatchDecisionResponse(List.of(BatchDecisionResponse.Outcome.accepted(10L))));
+
+            // when & then
+            mockMvc.perform(post("/process/{approverId}/batch", 1L)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"decisions":[{"requestId":10,"status":"APPROVAL_RESULT_APPROVED"}]}
+                                    """))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results[0].requestId").value(10))
+                    .andExpect(jsonPath("$.results[0].accepted").value(true));
+        }
+
         @Test
         @DisplayName("정상 처리 시 ApprovalResultRequest 를 구성해 결과를 발행한다")
         void handleSuccess() throws Exception {
@@ -0,0 +1,270 @@
+package erp.approvalprocessing.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import erp.approvalprocessing.service.ApprovalQueueService;
+import erp.approvalprocessing.service.QueueChangeListener;
+import erp.shared.proto.approval.ApprovalRequest;
+import erp.shared.proto.approval.Step;
+import erp.shared.proto.approval.StepStatus;
+
+@DisplayName("MappedQueueJournal 단위 테스트")
+class MappedQueueJournalTest {
+
+    private static final int SEGMENT_SIZE = 4 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("재시작 시 enqueue/remove 이벤트를 재생해 큐를 복구한다")
+    void replayAfterRestart() {
+        // given
+        ApprovalQueueService before = openService();
+        before.enqueue(approvalRequest(1L, 10L, 1));
+        before.enqueue(approvalRequest(2L, 10L, 1));
+        before.enqueue(approvalRequest(3L, 20L, 2));
+        before.pollIfHead(10L, 1L);
+
+        // when
+        ApprovalQueueService after = openService();
+
+        // then
+        assertThat(after.getQueue(10L)).extracting(ApprovalRequest::getRequestId).containsExactly(2L);
+        assertThat(after.getQueue(20L)).extracting(ApprovalRequest::getRequestId).containsExactly(3L);
+        assertThat(after.getQueue(20L).getFirst().getTitle()).isEqualTo("title-3");
+    }
+
+    @Test
+    @DisplayName("세그먼트가 가득 차면 다음 세그먼트로 넘어가고 모두 재생한다")
+    void rollWhenSegmentFull() throws IOException {
+        // given
+        ApprovalQueueService before = openService();
+        for (long requestId = 1; requestId <= 100; requestId++) {
+            before.enqueue(approvalRequest(requestId, 10L, 1));
+        }
+
+        // when
+        ApprovalQueueService after = openService();
+
+        // then
+        assertThat(countFiles("segment-")).isGreaterThan(1);
+        assertThat(after.getQueue(10L)).hasSize(100);
+    }
+
+    @Test
+    @DisplayName("스냅샷 이후 이전 세그먼트를 정리하고, 스냅샷과 이후 세그먼트로 복구한다")
+    void snapshotAndCompact() throws IOException {
+        // given
+        MappedQueueJournal journal = new MappedQueueJournal(dir, SEGMENT_SIZE);
+        ApprovalQueueService before = new ApprovalQueueService(journal, QueueChangeListener.NOOP);
+        new QueueJournalMaintenance(journal, before).recover();
+        for (long requestId = 1; requestId <= 50; requestId++) {
+            before.enqueue(approvalRequest(requestId, 10L, 1));
+        }
+        for (long requestId = 1; requestId <= 40; requestId++) {
+            before.pollIfHead(10L, requestId);
+        }
+
+        // when
+        new QueueJournalMaintenance(journal, before).snapshot();
+        before.enqueue(approvalRequest(51L, 10L, 1));
+        ApprovalQueueService after = openService();
+
+        // then
+        assertThat(countFiles("snapshot-")).isEqualTo(1);
+        assertThat(countFiles("segment-")).isEqualTo(1);
+        assertThat(after.getQueue(10L)).extracting(ApprovalRequest::getRequestId)
+                .containsExactly(41L, 42L, 43L, 44L, 45L, 46L, 47L, 48L, 49L, 50L, 51L);
+    }
+
+    @Test
+    @DisplayName("여러 승인자가 동시에 기록해도 모든 레코드를 재생한다")
+    void concurrentAppends() throws InterruptedException {
+        // given
+        ApprovalQueueService before = openService();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        for (long approverId = 1; approverId <= 4; approverId++) {
+            long approver = approverId;
+            executor.execute(() -> LongStream.rangeClosed(1, 50)
+                    .forEach(seq -> before.enqueue(approvalRequest(approver * 1000 + seq, approver, 1))));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        ApprovalQueueService after = openService();
+
+        // then
+        for (long approverId = 1; approverId <= 4; approverId++) {
+            assertThat(after.getQueue(approverId)).hasSize(50);
+        }
+    }
+
+    @Test
+    @DisplayName("손상된 레코드를 만나면 재생을 멈추고 이후 세그먼트는 재생하지 않는다")
+    void stopReplayAtCorruption() throws IOException {
+        // given: 여러 세그먼트에 걸쳐 기록한 뒤 첫 세그먼트 두 번째 레코드의 CRC 를 깨뜨린다
+        ApprovalQueueService before = openService();
+        for (long requestId = 1; requestId <= 100; requestId++) {
+            before.enqueue(approvalRequest(requestId, 10L, 1));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve(firstSegment()).toFile(), "rw")) {
+            long second = Integer.BYTES * 2 + file.readInt();
+            file.seek(second + Integer.BYTES);
+            int crc = file.readInt();
+            file.seek(second + Integer.BYTES);
+            file.writeInt(~crc);
+        }
+
+        // when
+        ApprovalQueueService after = openService();
+        after.enqueue(approvalRequest(200L, 10L, 1));
+        ApprovalQueueService reopened = openService();
+
+        // then: 손상 지점 앞까지만 복구하고, 손상 지점부터 이어 쓴다
+        assertThat(after.getQueue(10L)).extracting(ApprovalRequest::getRequestId).containsExactly(1L, 200L);
+        assertThat(reopened.getQueue(10L)).extracting(ApprovalRequest::getRequestId).containsExactly(1L, 200L);
+        assertThat(countFiles("segment-") - countDiscarded()).isEqualTo(1);
+        assertThat(countDiscarded()).isPositive();
+    }
+
+    @Test
+    @DisplayName("기록에 실패하면 예외 없이 메모리 전용으로 전환하고, 스냅샷이 성공하면 다시 기록한다")
+    void degradeToMemoryOnlyAndRecover() throws IOException {
+        // given: 다음 세그먼트 자리에 디렉터리가 있어 세그먼트를 만들 수 없다
+        Path blocked = Files.createDirectories(dir.resolve("segment-%020d.log".formatted(1)));
+        MappedQueueJournal journal = new MappedQueueJournal(dir, SEGMENT_SIZE);
+        ApprovalQueueService before = new ApprovalQueueService(journal, QueueChangeListener.NOOP);
+        QueueJournalMaintenance maintenance = new QueueJournalMaintenance(journal, before);
+        maintenance.recover();
+
+        // when
+        for (long requestId = 1; requestId <= 100; requestId++) {
+            before.enqueue(approvalRequest(requestId, 10L, 1));
+        }
+
+        // then: 큐는 계속 동작하고 저널은 DEGRADED 표시를 남긴다
+        assertThat(before.getQueue(10L)).hasSize(100);
+        assertThat(journal.isDegraded()).isTrue();
+        assertThat(journal.skippedRecords()).isPositive();
+        assertThat(dir.resolve("DEGRADED")).exists();
+
+        // when: 디스크가 회복된 뒤 스냅샷
+        Files.delete(blocked);
+        maintenance.snapshot();
+        before.enqueue(approvalRequest(101L, 10L, 1));
+        ApprovalQueueService after = openService();
+
+        // then
+        assertThat(journal.isDegraded()).isFalse();
+        assertThat(dir.resolve("DEGRADED")).doesNotExist();
+        assertThat(after.getQueue(10L)).hasSize(101);
+    }
+
+    @Test
+    @DisplayName("메모리 전용으로 동작하다 재시작하면 어긋난 저널을 격리하고 빈 큐로 시작한다")
+    void quarantineAfterDegradedRestart() throws IOException {
+        // given
+        Path blocked = Files.createDirectories(dir.resolve("segment-%020d.log".formatted(1)));
+        ApprovalQueueService before = openService();
+        for (long requestId = 1; requestId <= 100; requestId++) {
+            before.enqueue(approvalRequest(requestId, 10L, 1));
+        }
+        Files.delete(blocked);
+
+        // when
+        ApprovalQueueService after = openService();
+
+        // then
+        assertThat(after.getQueue(10L)).isEmpty();
+        assertThat(countFiles("quarantine-")).isEqualTo(1);
+        assertThat(dir.resolve("DEGRADED")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("스냅샷이 손상되면 기동을 막지 않고 저널을 격리한 뒤 빈 큐로 시작한다")
+    void quarantineCorruptSnapshot() throws IOException {
+        // given
+        MappedQueueJournal journal = new MappedQueueJournal(dir, SEGMENT_SIZE);
+        ApprovalQueueService before = new ApprovalQueueService(journal, QueueChangeListener.NOOP);
+        QueueJournalMaintenance maintenance = new QueueJournalMaintenance(journal, before);
+        maintenance.recover();
+        before.enqueue(approvalRequest(1L, 10L, 1));
+        maintenance.snapshot();
+        before.enqueue(approvalRequest(2L, 10L, 1));
+        try (Stream<Path> files = Files.list(dir)) {
+            Path snapshot = files.filter(path -> path.getFileName().toString().startsWith("snapshot-"))
+                    .findFirst()
+                    .orElseThrow();
+            Files.write(snapshot, new byte[] {1, 2, 3});
+        }
+
+        // when
+        ApprovalQueueService after = openService();
+        after.enqueue(approvalRequest(3L, 10L, 1));
+        ApprovalQueueService reopened = openService();
+
+        // then: 손상된 스냅샷과 그 뒤 세그먼트는 격리되고, 새 저널로 이어서 기록한다
+        assertThat(after.getQueue(10L)).extracting(ApprovalRequest::getRequestId).containsExactly(3L);
+        assertThat(reopened.getQueue(10L)).extracting(ApprovalRequest::getRequestId).containsExactly(3L);
+        assertThat(countFiles("quarantine-")).isEqualTo(1);
+        assertThat(countFiles("snapshot-")).isZero();
+    }
+
+    private ApprovalQueueService openService() {
+        MappedQueueJournal journal = new MappedQueueJournal(dir, SEGMENT_SIZE);
+        ApprovalQueueService service = new ApprovalQueueService(journal, QueueChangeListener.NOOP);
+        new QueueJournalMaintenance(journal, service).recover();
+        return service;
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private String firstSegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                    .sorted()
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private long countDiscarded() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".discarded")).count();
+        }
+    }
+
+    private ApprovalRequest approvalRequest(long requestId, long approverId, int step) {
+        return ApprovalRequest.newBuilder()
+                .setRequestId(requestId)
+                .setTitle("title-" + requestId)
+                .setContent("content-" + requestId)
+                .addSteps(Step.newBuilder()
+                        .setStep(step)
+                        .setApproverId(approverId)
+                        .setStatus(StepStatus.STEP_STATUS_PENDING)
+                        .build())
+                .build();
+    }
+}
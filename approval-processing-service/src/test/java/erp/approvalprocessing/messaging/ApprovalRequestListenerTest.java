@@ -1,21 +1,33 @@
 package erp.approvalprocessing.messaging;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import erp.approvalprocessing.service.ApprovalProcessingService;
+import erp.approvalprocessing.service.QueueEntry;
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
+import erp.common.messaging.ApprovalMessagingConstants;
+import erp.common.messaging.ApprovalSharding;
+import erp.common.messaging.ConfirmingPublisher;
 import erp.shared.proto.approval.ApprovalRequest;
 import erp.shared.proto.approval.Step;
 import erp.shared.proto.approval.StepStatus;
@@ -26,6 +38,9 @@ class ApprovalRequestListenerTest {
     @Mock
     ApprovalProcessingService approvalProcessingService;
 
+    @Mock
+    ConfirmingPublisher confirmingPublisher;
+
     @InjectMocks
     ApprovalRequestListener listener;
 
@@ -36,8 +51,14 @@ class ApprovalRequestListenerTest {
                 .setRequestId(1L)
                 .setRequesterId(9L)
                 .setTitle("title")
+                .setContent("content")
                 .addSteps(Step.newBuilder()
                         .setStep(1)
+                        .setApproverId(3L)
+                        .setStatus(StepStatus.STEP_STATUS_APPROVED)
+                        .build())
+                .addSteps(Step.newBuilder()
+                        .setStep(2)
                         .setApproverId(2L)
                         .setStatus(StepStatus.STEP_STATUS_PENDING)
                         .build())
@@ -47,7 +68,32 @@ class ApprovalRequestListenerTest {
         listener.handleRequest(request.toByteArray());
 
         // then
-        verify(approvalProcessingService).acceptRequest(request);
+        ArgumentCaptor<QueueEntry> captor = ArgumentCaptor.forClass(QueueEntry.class);
+        verify(approvalProcessingService).acceptRequest(captor.capture());
+        QueueEntry entry = captor.getValue();
+        assertThat(entry.requestId()).isEqualTo(1L);
+        assertThat(entry.step()).isEqualTo(2);
+        assertThat(entry.approverId()).isEqualTo(2L);
+        assertThat(entry.request()).isEqualTo(request);
+    }
+
+    @Test
+    void pending_단계가_없으면_큐에_넣지_않는다() {
+        // given
+        ApprovalRequest request = ApprovalRequest.newBuilder()
+                .setRequestId(1L)
+                .addSteps(Step.newBuilder()
+                        .setStep(1)
+                        .setApproverId(2L)
+                        .setStatus(StepStatus.STEP_STATUS_APPROVED)
+                        .build())
+                .build();
+
+        // when
+        listener.handleRequest(request.toByteArray());
+
+        // then
+        verifyNoInteractions(approvalProcessingService);
     }
 
     @Test
@@ -61,14 +107,45 @@ class ApprovalRequestListenerTest {
     @Test
     void 비즈니스_예외는_삼키고_ACK한다() throws Exception {
         // given
-        ApprovalRequest request = ApprovalRequest.newBuilder().build();
+        ApprovalRequest request = ApprovalRequest.newBuilder()
+                .setRequestId(1L)
+                .addSteps(Step.newBuilder()
+                        .setStep(1)
+                        .setApproverId(2L)
+                        .setStatus(StepStatus.STEP_STATUS_PENDING)
+                        .build())
+                .build();
         doThrow(new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND))
                 .when(approvalProcessingService)
-                .acceptRequest(request);
+                .acceptRequest(any(QueueEntry.class));
 
         // when & then
         assertThatCode(() -> listener.handleRequest(request.toByteArray()))
                 .doesNotThrowAnyException();
-        verify(approvalProcessingService).acceptRequest(request);
+        verify(approvalProcessingService).acceptRequest(any(QueueEntry.class));
+    }
+
+    @Test
+    void 기존_요청_큐의_메시지는_승인자의_샤드_큐로_옮긴다() {
+        // given
+        ReflectionTestUtils.setField(listener, "shardCount", 4);
+        ApprovalRequest request = ApprovalRequest.newBuilder()
+                .setRequestId(1L)
+                .addSteps(Step.newBuilder()
+                        .setStep(1)
+                        .setApproverId(7L)
+                        .setStatus(StepStatus.STEP_STATUS_PENDING)
+                        .build())
+                .build();
+        byte[] payload = request.toByteArray();
+        given(confirmingPublisher.publish(any(), any(), any())).willReturn(CompletableFuture.completedFuture(null));
+
+        // when
+        listener.drainLegacyRequest(payload);
+
+        // then
+        verify(confirmingPublisher).publish(
+                eq(ApprovalMessagingConstants.EXCHANGE_NAME), eq(ApprovalSharding.requestRoutingKey(7L, 4)), eq(payload));
+        verifyNoInteractions(approvalProcessingService);
     }
 }
@@ -2,14 +2,18 @@ package erp.approvalprocessing.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,15 +25,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.AmqpException;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import erp.approvalprocessing.dto.ApprovalQueueItemResponse;
+import erp.approvalprocessing.dto.ApprovalQueuePageResponse;
+import erp.approvalprocessing.dto.ApprovalQueueSummaryResponse;
+import erp.approvalprocessing.dto.BatchDecisionRequest;
+import erp.approvalprocessing.dto.BatchDecisionResponse;
+import erp.approvalprocessing.stream.ApprovalQueueEventHub;
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
 import erp.common.security.AuthUtil;
 import erp.common.security.Role;
 import erp.common.messaging.ApprovalMessagingConstants;
+import erp.common.messaging.ApprovalSharding;
+import erp.common.messaging.ConfirmingPublisher;
+import erp.common.messaging.ConfirmingPublisher.Outbound;
 import erp.shared.proto.approval.ApprovalRequest;
 import erp.shared.proto.approval.ApprovalResultRequest;
 import erp.shared.proto.approval.ApprovalResultStatus;
@@ -43,11 +55,14 @@ class ApprovalProcessingServiceTest {
     @Mock
     ApprovalQueueService approvalQueueService;
 
+    @Mock
+    ApprovalQueueEventHub approvalQueueEventHub;
+
     @Mock
     AuthUtil authUtil;
 
     @Mock
-    RabbitTemplate rabbitTemplate;
+    ConfirmingPublisher confirmingPublisher;
 
     @InjectMocks
     ApprovalProcessingService approvalProcessingService;
@@ -56,6 +71,7 @@ class ApprovalProcessingServiceTest {
     void setUp() {
         ReflectionTestUtils.setField(approvalProcessingService, "approvalRequestMaxAttempts", 2);
         ReflectionTestUtils.setField(approvalProcessingService, "approvalRequestBackoffMillis", 1L);
+        ReflectionTestUtils.setField(approvalProcessingService, "resultPartitions", 1);
     }
 
     @Nested
@@ -97,6 +113,60 @@ class ApprovalProcessingServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getQueuePage")
+    class GetQueuePage {
+
+        @Test
+        @DisplayName("limit 보다 많이 남아 있으면 마지막 항목 위치를 nextCursor 로 반환한다")
+        void returnNextCursorWhenMoreRemain() {
+            // given
+            mockNonAdmin(10L);
+            when(approvalQueueService.page(10L, null, 3))
+                    .thenReturn(List.of(queueEntry(1L, 10L, 1), queueEntry(2L, 10L, 1), queueEntry(3L, 10L, 2)));
+
+            // when
+            ApprovalQueuePageResponse page = approvalProcessingService.getQueuePage(10L, 2, null, false);
+
+            // then
+            assertThat(page.items()).extracting(ApprovalQueueSummaryResponse::requestId).containsExactly(1L, 2L);
+            assertThat(page.items().getFirst().steps()).isNull();
+            assertThat(QueueCursor.decode(page.nextCursor())).isEqualTo(new QueueCursor(1, 2L));
+        }
+
+        @Test
+        @DisplayName("커서 이후 항목을 조회하고 마지막 페이지면 nextCursor 가 null 이다")
+        void continueFromCursor() {
+            // given
+            mockNonAdmin(10L);
+            QueueCursor cursor = new QueueCursor(1, 2L);
+            when(approvalQueueService.page(10L, cursor, 3)).thenReturn(List.of(queueEntry(3L, 10L, 2)));
+
+            // when
+            ApprovalQueuePageResponse page = approvalProcessingService.getQueuePage(10L, 2, cursor.encode(), true);
+
+            // then
+            assertThat(page.items()).extracting(ApprovalQueueSummaryResponse::requestId).containsExactly(3L);
+            assertThat(page.items().getFirst().steps()).hasSize(1);
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("limit 이 허용 범위를 벗어나거나 커서가 잘못되면 BAD_REQUEST 예외를 던진다")
+        void badRequestWhenInvalidParams() {
+            // given
+            mockNonAdmin(10L);
+
+            // when & then: 예외 검증
+            assertThatThrownBy(() -> approvalProcessingService.getQueuePage(10L, 0, null, false))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST);
+            assertThatThrownBy(() -> approvalProcessingService.getQueuePage(10L, 10, "not-a-cursor", false))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST);
+        }
+    }
+
     @Nested
     @DisplayName("handle")
     class Handle {
@@ -130,7 +200,8 @@ class ApprovalProcessingServiceTest {
         void notFoundWhenQueueMissing() {
             // given
             mockNonAdmin(1L);
-            when(approvalQueueService.getQueue(1L)).thenReturn(List.of());
+            when(approvalQueueService.pollIfHead(1L, 10L))
+                    .thenThrow(new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalProcessingService.handle(1L, 10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED))
@@ -138,36 +209,20 @@ class ApprovalProcessingServiceTest {
                     .hasFieldOrPropertyWithValue("errorCode", ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
         }
 
-        @Test
-        @DisplayName("approverId 에 pending step 이 없으면 APPROVAL_PROCESS_INVALID_STATUS 예외를 던진다")
-        void invalidWhenPendingStepMissing() {
-            // given
-            mockNonAdmin(1L);
-            ApprovalRequest request = approvalRequest(10L, 2L, 1, StepStatus.STEP_STATUS_PENDING);
-            when(approvalQueueService.getQueue(1L)).thenReturn(List.of(request));
-            when(approvalQueueService.remove(1L, 10L)).thenReturn(request);
-
-            // when & then: 예외 검증
-            assertThatThrownBy(() -> approvalProcessingService.handle(1L, 10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED))
-                    .isInstanceOf(CustomException.class)
-                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
-        }
-
         @Test
         @DisplayName("큐의 맨 앞이 아닌 요청을 처리하려 하면 APPROVAL_PROCESS_INVALID_STATUS 예외를 던진다")
         void invalidWhenNotHeadOfQueue() {
             // given
             mockNonAdmin(1L);
-            ApprovalRequest head = approvalRequest(10L, 1L, 1, StepStatus.STEP_STATUS_PENDING);
-            ApprovalRequest later = approvalRequest(20L, 1L, 1, StepStatus.STEP_STATUS_PENDING);
-            when(approvalQueueService.getQueue(1L)).thenReturn(List.of(head, later));
+            when(approvalQueueService.pollIfHead(1L, 20L))
+                    .thenThrow(new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalProcessingService.handle(1L, 20L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED))
                     .isInstanceOf(CustomException.class)
                     .hasFieldOrPropertyWithValue("errorCode", ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
 
-            verify(approvalQueueService, times(0)).remove(1L, 20L);
+            verifyNoInteractions(confirmingPublisher);
         }
 
         @Test
@@ -175,17 +230,16 @@ class ApprovalProcessingServiceTest {
         void handleSuccess() {
             // given
             mockNonAdmin(1L);
-            ApprovalRequest request = approvalRequest(10L, 1L, 2, StepStatus.STEP_STATUS_PENDING);
-            when(approvalQueueService.getQueue(1L)).thenReturn(List.of(request));
-            when(approvalQueueService.remove(1L, 10L)).thenReturn(request);
+            when(approvalQueueService.pollIfHead(1L, 10L)).thenReturn(queueEntry(10L, 1L, 2));
+            when(confirmingPublisher.publish(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 
             // when
             approvalProcessingService.handle(1L, 10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED);
 
             // then
-            verify(approvalQueueService).remove(1L, 10L);
+            verify(approvalQueueService).pollIfHead(1L, 10L);
             ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
-            verify(rabbitTemplate).convertAndSend(
+            verify(confirmingPublisher).publish(
                     eq(ApprovalMessagingConstants.EXCHANGE_NAME),
                     eq(ApprovalMessagingConstants.ROUTING_KEY_RESULT),
                     captor.capture());
@@ -203,31 +257,173 @@ class ApprovalProcessingServiceTest {
         }
 
         @Test
-        @DisplayName("메시지 발행 실패 시 설정된 횟수만큼 재시도한다")
-        void retryWhenPublishFails() {
+        @DisplayName("결과 파티션을 쓰면 requestId 의 파티션 라우팅 키로 발행한다")
+        void publishToRequestPartition() {
             // given
+            ReflectionTestUtils.setField(approvalProcessingService, "resultPartitions", 4);
             mockNonAdmin(1L);
-            ApprovalRequest request = approvalRequest(11L, 1L, 1, StepStatus.STEP_STATUS_PENDING);
-            when(approvalQueueService.getQueue(1L)).thenReturn(List.of(request));
-            when(approvalQueueService.remove(1L, 11L)).thenReturn(request);
+            when(approvalQueueService.pollIfHead(1L, 10L)).thenReturn(queueEntry(10L, 1L, 1));
+            when(confirmingPublisher.publish(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
 
-            doThrow(new RuntimeException("first fail"))
-                    .doNothing()
-                    .when(rabbitTemplate)
-                    .convertAndSend(eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                            eq(ApprovalMessagingConstants.ROUTING_KEY_RESULT), any(byte[].class));
+            // when
+            approvalProcessingService.handle(1L, 10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED);
+
+            // then
+            verify(confirmingPublisher).publish(
+                    eq(ApprovalMessagingConstants.EXCHANGE_NAME),
+                    eq(ApprovalSharding.resultRoutingKey(10L, 4)),
+                    any(byte[].class));
+        }
+
+        @Test
+        @DisplayName("브로커 확인에 실패하면 설정된 횟수만큼 재시도한다")
+        void retryWhenPublishFails() {
+            // given
+            mockNonAdmin(1L);
+            when(approvalQueueService.pollIfHead(1L, 11L)).thenReturn(queueEntry(11L, 1L, 1));
+            when(confirmingPublisher.publish(any(), any(), any()))
+                    .thenReturn(CompletableFuture.failedFuture(new AmqpException("nack")))
+                    .thenReturn(CompletableFuture.completedFuture(null));
 
             // when
             approvalProcessingService.handle(1L, 11L, ApprovalResultStatus.APPROVAL_RESULT_REJECTED);
 
             // then
-            verify(rabbitTemplate, times(2)).convertAndSend(
+            verify(confirmingPublisher, times(2)).publish(
                     eq(ApprovalMessagingConstants.EXCHANGE_NAME),
                     eq(ApprovalMessagingConstants.ROUTING_KEY_RESULT),
                     any(byte[].class));
         }
     }
 
+    @Nested
+    @DisplayName("handleBatch")
+    class HandleBatch {
+
+        @Test
+        @DisplayName("순서대로 맨 앞과 대조해 꺼내고, 꺼낸 건만 한 번의 확인 발행으로 보낸다")
+        @SuppressWarnings("unchecked")
+        void publishPolledInOneConfirmedSend() {
+            // given
+            mockNonAdmin(1L);
+            when(confirmingPublisher.publishEach(anyList())).thenAnswer(invocation -> confirmAll(invocation.getArgument(0)));
+            when(approvalQueueService.pollIfHead(1L, 10L)).thenReturn(queueEntry(10L, 1L, 1));
+            when(approvalQueueService.pollIfHead(1L, 30L))
+                    .thenThrow(new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS));
+            when(approvalQueueService.pollIfHead(1L, 20L)).thenReturn(queueEntry(20L, 1L, 2));
+
+            // when
+            BatchDecisionResponse response = approvalProcessingService.handleBatch(1L, List.of(
+                    new BatchDecisionRequest.Decision(10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    new BatchDecisionRequest.Decision(30L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    new BatchDecisionRequest.Decision(20L, ApprovalResultStatus.APPROVAL_RESULT_REJECTED),
+                    new BatchDecisionRequest.Decision(40L, null)));
+
+            // then
+            assertThat(response.results()).extracting(BatchDecisionResponse.Outcome::accepted)
+                    .containsExactly(true, false, true, false);
+            assertThat(response.results().get(1).errorCodeName()).isEqualTo("APPROVAL_PROCESS_INVALID_STATUS");
+            assertThat(response.results().get(3).errorCodeName()).isEqualTo("APPROVAL_PROCESS_INVALID_STATUS");
+            ArgumentCaptor<List<Outbound>> captor = ArgumentCaptor.forClass(List.class);
+            verify(confirmingPublisher, times(1)).publishEach(captor.capture());
+            assertThat(captor.getValue())
+                    .extracting(Outbound::exchange, Outbound::routingKey)
+                    .containsOnly(tuple(
+                            ApprovalMessagingConstants.EXCHANGE_NAME, ApprovalMessagingConstants.ROUTING_KEY_RESULT))
+                    .hasSize(2);
+        }
+
+        @Test
+        @DisplayName("발행이 끝내 실패하면 꺼낸 건들을 큐에 되돌리고 PUBLISH_FAILED 로 응답한다")
+        void restoreWhenPublishFails() {
+            // given
+            mockNonAdmin(1L);
+            QueueEntry entry = queueEntry(10L, 1L, 1);
+            when(approvalQueueService.pollIfHead(1L, 10L)).thenReturn(entry);
+            when(confirmingPublisher.publishEach(anyList()))
+                    .thenThrow(new AmqpException("channel closed"));
+
+            // when
+            BatchDecisionResponse response = approvalProcessingService.handleBatch(1L, List.of(
+                    new BatchDecisionRequest.Decision(10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED)));
+
+            // then
+            assertThat(response.results().getFirst().accepted()).isFalse();
+            assertThat(response.results().getFirst().errorCodeName()).isEqualTo("APPROVAL_PROCESS_PUBLISH_FAILED");
+            verify(confirmingPublisher, times(2)).publishEach(anyList());
+            verify(approvalQueueService).enqueue(entry);
+        }
+
+        @Test
+        @DisplayName("확인받지 못한 건만 다시 보내고, 끝내 실패한 건만 큐에 되돌린다")
+        @SuppressWarnings("unchecked")
+        void restoreOnlyUnconfirmed() {
+            // given
+            mockNonAdmin(1L);
+            QueueEntry confirmedEntry = queueEntry(10L, 1L, 1);
+            QueueEntry nackedEntry = queueEntry(20L, 1L, 1);
+            when(approvalQueueService.pollIfHead(1L, 10L)).thenReturn(confirmedEntry);
+            when(approvalQueueService.pollIfHead(1L, 20L)).thenReturn(nackedEntry);
+            when(confirmingPublisher.publishEach(anyList())).thenAnswer(invocation -> {
+                List<Outbound> messages = invocation.getArgument(0);
+                return messages.stream()
+                        .map(message -> parseResult(message.body()).getRequestId() == 20L
+                                ? CompletableFuture.<Void>failedFuture(new AmqpException("nack"))
+                                : CompletableFuture.<Void>completedFuture(null))
+                        .toList();
+            });
+
+            // when
+            BatchDecisionResponse response = approvalProcessingService.handleBatch(1L, List.of(
+                    new BatchDecisionRequest.Decision(10L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    new BatchDecisionRequest.Decision(20L, ApprovalResultStatus.APPROVAL_RESULT_APPROVED)));
+
+            // then: 응답 검증
+            assertThat(response.results()).extracting(BatchDecisionResponse.Outcome::accepted)
+                    .containsExactly(true, false);
+            assertThat(response.results().get(1).errorCodeName()).isEqualTo("APPROVAL_PROCESS_PUBLISH_FAILED");
+
+            // then: 재시도는 실패한 건만, 되돌리기도 실패한 건만
+            ArgumentCaptor<List<Outbound>> captor = ArgumentCaptor.forClass(List.class);
+            verify(confirmingPublisher, times(2)).publishEach(captor.capture());
+            assertThat(captor.getAllValues().get(1))
+                    .extracting(message -> parseResult(message.body()).getRequestId())
+                    .containsExactly(20L);
+            verify(approvalQueueService).enqueue(nackedEntry);
+            verify(approvalQueueService, never()).enqueue(confirmedEntry);
+        }
+
+        @Test
+        @DisplayName("결정 목록이 비어 있으면 BAD_REQUEST 예외를 던진다")
+        void badRequestWhenEmpty() {
+            // given
+            mockNonAdmin(1L);
+
+            // when & then: 예외 검증
+            assertThatThrownBy(() -> approvalProcessingService.handleBatch(1L, List.of()))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST);
+        }
+    }
+
+    @Nested
+    @DisplayName("subscribe")
+    class Subscribe {
+
+        @Test
+        @DisplayName("본인이 아닌 approverId 를 구독하면 FORBIDDEN 이고 구독을 등록하지 않는다")
+        void forbidWhenNotOwner() {
+            // given
+            mockNonAdmin(1L);
+
+            // when & then
+            assertThatThrownBy(() -> approvalProcessingService.subscribe(2L))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.FORBIDDEN);
+            verifyNoInteractions(approvalQueueService, approvalQueueEventHub);
+        }
+    }
+
     @Nested
     @DisplayName("acceptRequest")
     class Accepts {
@@ -251,6 +447,23 @@ class ApprovalProcessingServiceTest {
         when(authUtil.currentUserId()).thenReturn(userId);
     }
 
+    private List<CompletableFuture<Void>> confirmAll(List<Outbound> messages) {
+        return messages.stream().map(message -> CompletableFuture.<Void>completedFuture(null)).toList();
+    }
+
+    private ApprovalResultRequest parseResult(byte[] body) {
+        try {
+            return ApprovalResultRequest.parseFrom(body);
+        } catch (InvalidProtocolBufferException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private QueueEntry queueEntry(long requestId, long approverId, int step) {
+        ApprovalRequest request = approvalRequest(requestId, approverId, step, StepStatus.STEP_STATUS_PENDING);
+        return new QueueEntry(requestId, step, approverId, 0L, request.toByteArray());
+    }
+
     private ApprovalRequest approvalRequest(long requestId, long approverId, int step, StepStatus status) {
         Step pendingStep = Step.newBuilder()
                 .setStep(step)
@@ -2,7 +2,9 @@ package erp.approvalprocessing.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +12,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
 import erp.shared.proto.approval.ApprovalRequest;
 import erp.shared.proto.approval.Step;
 import erp.shared.proto.approval.StepStatus;
@@ -21,7 +25,7 @@ class ApprovalQueueServiceTest {
 
     @BeforeEach
     void setUp() {
-        approvalQueueService = new ApprovalQueueService();
+        approvalQueueService = new ApprovalQueueService(QueueJournal.NOOP, QueueChangeListener.NOOP);
     }
 
     @Nested
@@ -78,6 +82,21 @@ class ApprovalQueueServiceTest {
             assertThat(queue.getFirst()).isEqualTo(updated);
         }
 
+        @Test
+        @DisplayName("재등록으로 pending step 이 바뀌면 새 우선순위로 재정렬한다")
+        void reorderWhenPendingStepChanges() {
+            // given
+            approvalQueueService.enqueue(approvalRequest(1L, 10L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(2L, 10L, 2, StepStatus.STEP_STATUS_PENDING));
+
+            // when
+            approvalQueueService.enqueue(approvalRequest(1L, 10L, 3, StepStatus.STEP_STATUS_PENDING));
+
+            // then
+            assertThat(approvalQueueService.getQueue(10L)).extracting(ApprovalRequest::getRequestId)
+                    .containsExactly(2L, 1L);
+        }
+
         @Test
         @DisplayName("getQueue 는 방어적 복사본을 반환한다")
         void getQueueReturnsDefensiveCopy() {
@@ -115,6 +134,22 @@ class ApprovalQueueServiceTest {
             assertThat(approvalQueueService.getQueue(30L)).isEmpty();
         }
 
+        @Test
+        @DisplayName("맨 앞 요청을 제거하면 다음 우선순위 요청이 맨 앞이 된다")
+        void nextRequestBecomesHeadAfterRemove() {
+            // given
+            approvalQueueService.enqueue(approvalRequest(3L, 30L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(1L, 30L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(2L, 30L, 2, StepStatus.STEP_STATUS_PENDING));
+
+            // when
+            approvalQueueService.remove(30L, 1L);
+
+            // then
+            assertThat(approvalQueueService.getQueue(30L)).extracting(ApprovalRequest::getRequestId)
+                    .containsExactly(3L, 2L);
+        }
+
         @Test
         @DisplayName("없는 요청을 제거하면 null 을 반환한다")
         void returnNullWhenNotFound() {
@@ -126,6 +161,129 @@ class ApprovalQueueServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("pollIfHead")
+    class PollIfHead {
+
+        @Test
+        @DisplayName("맨 앞 요청이면 제거하고 반환한다")
+        void pollWhenHead() {
+            // given
+            ApprovalRequest head = approvalRequest(1L, 50L, 1, StepStatus.STEP_STATUS_PENDING);
+            approvalQueueService.enqueue(head);
+            approvalQueueService.enqueue(approvalRequest(2L, 50L, 1, StepStatus.STEP_STATUS_PENDING));
+
+            // when
+            QueueEntry polled = approvalQueueService.pollIfHead(50L, 1L);
+
+            // then
+            assertThat(polled.request()).isEqualTo(head);
+            assertThat(polled.step()).isEqualTo(1);
+            assertThat(polled.approverId()).isEqualTo(50L);
+            assertThat(approvalQueueService.getQueue(50L)).extracting(ApprovalRequest::getRequestId)
+                    .containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("맨 앞이 아닌 요청이면 APPROVAL_PROCESS_INVALID_STATUS 를 던지고 큐를 유지한다")
+        void invalidWhenNotHead() {
+            // given
+            approvalQueueService.enqueue(approvalRequest(1L, 50L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(2L, 50L, 1, StepStatus.STEP_STATUS_PENDING));
+
+            // when & then
+            assertThatThrownBy(() -> approvalQueueService.pollIfHead(50L, 2L))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
+            assertThat(approvalQueueService.getQueue(50L)).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("큐가 비어 있으면 APPROVAL_PROCESS_NOT_FOUND 를 던진다")
+        void notFoundWhenEmpty() {
+            // when & then
+            assertThatThrownBy(() -> approvalQueueService.pollIfHead(60L, 1L))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
+        }
+    }
+
+    @Nested
+    @DisplayName("page")
+    class Page {
+
+        @Test
+        @DisplayName("커서 바로 뒤부터 우선순위 순으로 limit 개를 반환한다")
+        void pageAfterCursor() {
+            // given
+            approvalQueueService.enqueue(approvalRequest(3L, 70L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(1L, 70L, 2, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(2L, 70L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(4L, 70L, 2, StepStatus.STEP_STATUS_PENDING));
+
+            // when
+            List<QueueEntry> first = approvalQueueService.page(70L, null, 2);
+            List<QueueEntry> second = approvalQueueService.page(70L, QueueCursor.of(first.getLast()), 2);
+
+            // then
+            assertThat(first).extracting(QueueEntry::requestId).containsExactly(2L, 3L);
+            assertThat(second).extracting(QueueEntry::requestId).containsExactly(1L, 4L);
+        }
+
+        @Test
+        @DisplayName("커서 항목이 이미 제거되어도 그 위치 뒤부터 이어서 반환한다")
+        void pageAfterRemovedCursor() {
+            // given
+            approvalQueueService.enqueue(approvalRequest(1L, 80L, 1, StepStatus.STEP_STATUS_PENDING));
+            approvalQueueService.enqueue(approvalRequest(2L, 80L, 1, StepStatus.STEP_STATUS_PENDING));
+            QueueCursor cursor = QueueCursor.of(approvalQueueService.page(80L, null, 1).getFirst());
+            approvalQueueService.pollIfHead(80L, 1L);
+
+            // when
+            List<QueueEntry> page = approvalQueueService.page(80L, cursor, 10);
+
+            // then
+            assertThat(page).extracting(QueueEntry::requestId).containsExactly(2L);
+        }
+    }
+
+    @Nested
+    @DisplayName("subscribe")
+    class Subscribe {
+
+        @Test
+        @DisplayName("현재 스냅샷을 넘기고, 이후 추가/제거를 리스너로 순서대로 통보한다")
+        void snapshotThenDeltas() {
+            // given
+            List<String> events = new ArrayList<>();
+            ApprovalQueueService service = new ApprovalQueueService(QueueJournal.NOOP, new QueueChangeListener() {
+                @Override
+                public void added(QueueEntry entry) {
+                    events.add("added:" + entry.requestId());
+                }
+
+                @Override
+                public void removed(long approverId, long requestId) {
+                    events.add("removed:" + requestId);
+                }
+            });
+            service.enqueue(approvalRequest(1L, 90L, 1, StepStatus.STEP_STATUS_PENDING));
+            events.clear();
+
+            // when
+            List<Long> snapshot = service.subscribe(90L,
+                    entries -> entries.stream().map(QueueEntry::requestId).toList());
+            service.enqueue(approvalRequest(2L, 90L, 1, StepStatus.STEP_STATUS_PENDING));
+            service.pollIfHead(90L, 1L);
+            service.remove(90L, 2L);
+            service.remove(90L, 999L);
+
+            // then
+            assertThat(snapshot).containsExactly(1L);
+            assertThat(events).containsExactly("added:2", "removed:1", "removed:2");
+        }
+    }
+
     private ApprovalRequest approvalRequest(long requestId, long approverId, int step, StepStatus status) {
         Step pendingStep = Step.newBuilder()
                 .setStep(step)
@@ -0,0 +1,47 @@
+package erp.approvalprocessing.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ApprovalQueueEventHubTest {
+
+    ApprovalQueueEventHub hub = new ApprovalQueueEventHub();
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void 구독을_등록하면_승인자별로_관리한다() {
+        // given
+        ReflectionTestUtils.setField(hub, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(hub, "maxPendingEvents", 100);
+
+        // when
+        hub.register(1L, List.of());
+        hub.register(1L, List.of());
+
+        // then
+        assertThat(hub.subscriptionCount(1L)).isEqualTo(2);
+        assertThat(hub.subscriptionCount(2L)).isZero();
+    }
+
+    @Test
+    void 대기_이벤트가_한도를_넘으면_구독을_끊는다() {
+        // given
+        ReflectionTestUtils.setField(hub, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(hub, "maxPendingEvents", 0);
+
+        // when
+        hub.register(1L, List.of());
+
+        // then
+        assertThat(hub.subscriptionCount(1L)).isZero();
+    }
+}
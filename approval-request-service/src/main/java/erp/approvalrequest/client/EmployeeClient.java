@@ -1,39 +1,162 @@
 package erp.approvalrequest.client;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
 import erp.common.security.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Component
 @RequiredArgsConstructor
 public class EmployeeClient {
 
+    static final String CACHE_NAME = "employeeClient";
+
+    /** employee-service 일괄 조회 API 가 한 번에 받는 최대 id 수. 넘으면 BAD_REQUEST 로 거절한다 */
+    static final int MAX_BULK_IDS = 100;
+
     @Value("${employee.base-url}")
     private String baseUrl;
 
+    @Value("${employee.cache.max-size}")
+    private long cacheMaxSize;
+
+    @Value("${employee.cache.ttl-millis}")
+    private long cacheTtlMillis;
+
+    @Value("${employee.cache.negative-ttl-millis}")
+    private long cacheNegativeTtlMillis;
+
     private final RestClient.Builder restClientBuilder;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 사원 조회 결과 캐시. 값이 비어 있으면 404 로 확인된 부재(negative entry)이며 더 짧게 유지한다.
+     * 통신 오류 등 404 가 아닌 실패는 캐시하지 않는다.
+     */
+    private Cache<Long, Optional<EmployeeDto>> cache;
+
+    private RestClient restClient;
+
+    @PostConstruct
+    void init() {
+        restClient = restClientBuilder.baseUrl(baseUrl).build();
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<Long, Optional<EmployeeDto>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<EmployeeDto> employee, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(
+                                employee.isPresent() ? cacheTtlMillis : cacheNegativeTtlMillis);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            Long id, Optional<EmployeeDto> employee, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, employee, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            Long id, Optional<EmployeeDto> employee, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
 
     public EmployeeDto findById(Long id) {
+        return cache.get(id, this::fetch)
+                .orElseThrow(() -> new CustomException(ErrorCode.EMPLOYEE_NOT_FOUND));
+    }
+
+    public Role findRole(Long id) {
+        return findById(id).role();
+    }
+
+    /**
+     * 여러 사원을 한 번에 조회한다. 캐시에 없는 id 만 모아 MAX_BULK_IDS 개씩 일괄 조회 API 로 채우고,
+     * 존재하지 않는 id 는 결과 Map 에서 빠진다(negative entry 로 캐시된다).
+     */
+    public Map<Long, EmployeeDto> findAllByIds(Collection<Long> ids) {
+        Map<Long, EmployeeDto> found = new HashMap<>();
+        cache.getAll(ids, this::fetchAll)
+                .forEach((id, employee) -> employee.ifPresent(dto -> found.put(id, dto)));
+        return found;
+    }
+
+    private Optional<EmployeeDto> fetch(Long id) {
         try {
-            return restClientBuilder
-                    .build()
+            return Optional.ofNullable(restClient
                     .get()
-                    .uri(baseUrl + "/internal/employees/{id}", id)
+                    .uri("/internal/employees/{id}", id)
                     .retrieve()
-                    .body(EmployeeDto.class);
+                    .body(EmployeeDto.class));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
         } catch (RestClientException e) {
             throw new CustomException(ErrorCode.EMPLOYEE_NOT_FOUND);
         }
     }
 
-    public Role findRole(Long id) {
-        return findById(id).role();
+    private Map<Long, Optional<EmployeeDto>> fetchAll(Set<? extends Long> ids) {
+        Map<Long, Optional<EmployeeDto>> result = new HashMap<>();
+        List<Long> chunk = new ArrayList<>(MAX_BULK_IDS);
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == MAX_BULK_IDS) {
+                fetchChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            fetchChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void fetchChunk(List<Long> ids, Map<Long, Optional<EmployeeDto>> result) {
+        EmployeeDto[] employees;
+        try {
+            employees = restClient
+                    .get()
+                    .uri("/internal/employees?ids={ids}",
+                            ids.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                    .retrieve()
+                    .body(EmployeeDto[].class);
+        } catch (RestClientException e) {
+            throw new CustomException(ErrorCode.EMPLOYEE_NOT_FOUND);
+        }
+        ids.forEach(id -> result.put(id, Optional.empty()));
+        if (employees != null) {
+            for (EmployeeDto employee : employees) {
+                result.put(employee.id(), Optional.of(employee));
+            }
+        }
     }
 
     public record EmployeeDto(Long id, String email, String name, String department, String position, Role role) {}
@@ -1,55 +1,41 @@
 package erp.approvalrequest.client;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
-public class NotificationClient {
+@ConditionalOnProperty(prefix = "notification", name = "transport", havingValue = "http")
+public class NotificationClient implements NotificationSender {
 
     @Value("${notification.base-url}")
     private String baseUrl;
 
-    @Value("${notification.retry.max-attempts}")
-    private int maxAttempts;
+    private final RestClient.Builder restClientBuilder;
 
-    @Value("${notification.retry.backoff-millis}")
-    private long backoffMillis;
+    private RestClient restClient;
 
-    private final RestClient.Builder restClientBuilder;
+    @PostConstruct
+    void init() {
+        restClient = restClientBuilder.baseUrl(baseUrl).build();
+    }
 
+    @Override
     public void send(Long employeeId, String payload) {
-        for (int attempt = 1; attempt <= Math.max(1, maxAttempts); attempt++) {
-            try {
-                restClientBuilder
-                        .build()
-                        .post()
-                        .uri(baseUrl + "/internal/notifications/" + employeeId)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(new NotificationPayload(payload))
-                        .retrieve()
-                        .toBodilessEntity();
-                return;
-            } catch (Exception e) {
-                log.warn("Notification send failed (attempt {}/{} ) for user {}: {}", attempt, maxAttempts, employeeId, e.getMessage());
-                sleepQuietly();
-            }
-        }
+        restClient
+                .post()
+                .uri("/internal/notifications/{employeeId}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new NotificationPayload(payload))
+                .retrieve()
+                .toBodilessEntity();
     }
 
     public record NotificationPayload(String payload) {}
-
-    private void sleepQuietly() {
-        try {
-            Thread.sleep(backoffMillis);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
-        }
-    }
 }
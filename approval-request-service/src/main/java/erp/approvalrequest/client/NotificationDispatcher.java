@@ -0,0 +1,138 @@
+package erp.approvalrequest.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 알림을 호출 스레드와 분리해 보낸다. 결과 리스너는 접수만 하고 바로 반환하며,
+ * 전송은 작업 스레드에서, 재시도 대기는 스케줄러로 처리해 대기 중에 스레드를 잡아두지 않는다.
+ * 접수 후 끝나지 않은 알림 수가 capacity 를 넘으면 새 알림은 버리고 dropped 로 센다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    static final String METRIC_NAME = "notification.dispatch";
+
+    private final NotificationSender notificationSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.dispatch.capacity}")
+    private int capacity;
+
+    @Value("${notification.dispatch.workers}")
+    private int workers;
+
+    @Value("${notification.retry.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${notification.retry.backoff-millis}")
+    private long backoffMillis;
+
+    @Value("${notification.retry.max-backoff-millis}")
+    private long maxBackoffMillis;
+
+    private Semaphore permits;
+    private ExecutorService sender;
+    private ScheduledExecutorService retryScheduler;
+
+    private Counter delivered;
+    private Counter retried;
+    private Counter dropped;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(capacity);
+        sender = Executors.newFixedThreadPool(workers, Thread.ofPlatform()
+                .name("notification-sender-", 0)
+                .daemon(true)
+                .factory());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        delivered = counter("delivered");
+        retried = counter("retried");
+        dropped = counter("dropped");
+        failed = counter("failed");
+        Gauge.builder(METRIC_NAME + ".pending", this, dispatcher -> dispatcher.pending())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 알림을 접수한다. 여유가 없으면 버리고 false 를 반환한다.
+     */
+    public boolean dispatch(Long employeeId, String payload) {
+        if (!permits.tryAcquire()) {
+            dropped.increment();
+            log.warn("알림 대기열이 가득 차 알림을 버립니다. employeeId={}", employeeId);
+            return false;
+        }
+        sender.execute(() -> attempt(employeeId, payload, 1));
+        return true;
+    }
+
+    public int pending() {
+        return capacity - permits.availablePermits();
+    }
+
+    private void attempt(Long employeeId, String payload, int attempt) {
+        try {
+            notificationSender.send(employeeId, payload);
+            delivered.increment();
+            permits.release();
+        } catch (RuntimeException e) {
+            if (attempt >= maxAttempts) {
+                failed.increment();
+                permits.release();
+                log.warn("알림 전송에 {}회 실패해 포기합니다. employeeId={}: {}", attempt, employeeId, e.getMessage());
+                return;
+            }
+            retried.increment();
+            long delay = backoffFor(attempt);
+            log.debug("알림 전송 실패 (attempt {}/{}), {}ms 후 재시도합니다. employeeId={}",
+                    attempt, maxAttempts, delay, employeeId);
+            retryScheduler.schedule(
+                    () -> sender.execute(() -> attempt(employeeId, payload, attempt + 1)),
+                    delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    long backoffFor(int attempt) {
+        long delay = backoffMillis << Math.min(attempt - 1, 30);
+        return delay <= 0 ? maxBackoffMillis : Math.min(delay, maxBackoffMillis);
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder(METRIC_NAME).tag("result", result).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryScheduler.shutdownNow();
+        sender.shutdown();
+        try {
+            sender.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package erp.approvalrequest.client;
+
+/**
+ * 알림 한 건 전송. 실패하면 예외를 던지며, 재시도는 NotificationDispatcher 가 맡는다.
+ * notification.transport 에 따라 HTTP(NotificationClient) 또는 RabbitMQ(NotificationPublisher) 구현을 쓴다.
+ */
+public interface NotificationSender {
+
+    void send(Long employeeId, String payload);
+}
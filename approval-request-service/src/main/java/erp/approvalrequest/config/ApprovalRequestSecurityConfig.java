@@ -20,7 +20,7 @@ public class ApprovalRequestSecurityConfig extends AbstractSecurityConfig {
 
     @Override
     protected String[] permitAllPatterns() {
-        return new String[] {"/actuator/**"};
+        return new String[] {"/actuator/**", "/internal/**"};
     }
 
     @Override
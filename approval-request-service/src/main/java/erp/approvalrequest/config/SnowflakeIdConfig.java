@@ -0,0 +1,41 @@
+package erp.approvalrequest.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import erp.approvalrequest.service.NodeIdLease;
+import erp.approvalrequest.service.SnowflakeIdGenerator;
+
+/**
+ * approval.request-id.mode=snowflake 일 때 Mongo 카운터 대신 Snowflake id 를 쓴다.
+ * node-id 가 0 이상이면 설정값을, 음수면 Mongo 임대 문서로 노드 id 를 배정받는다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "approval.request-id", name = "mode", havingValue = "snowflake")
+public class SnowflakeIdConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnExpression("${approval.request-id.node-id} < 0")
+    public NodeIdLease nodeIdLease(
+            MongoOperations mongoOperations,
+            @Value("${approval.request-id.lease-ttl-millis}") long leaseTtlMillis) {
+        return new NodeIdLease(mongoOperations, leaseTtlMillis);
+    }
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(
+            ObjectProvider<NodeIdLease> nodeIdLease,
+            @Value("${approval.request-id.node-id}") long nodeId,
+            @Value("${approval.request-id.max-clock-backward-millis}") long maxClockBackwardMillis) {
+        NodeIdLease lease = nodeIdLease.getIfAvailable();
+        if (lease == null) {
+            return new SnowflakeIdGenerator(nodeId, maxClockBackwardMillis);
+        }
+        return new SnowflakeIdGenerator(lease::currentNodeId, maxClockBackwardMillis, System::currentTimeMillis);
+    }
+}
@@ -1,8 +1,11 @@
 package erp.approvalrequest.controller;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,11 +13,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import erp.approvalrequest.dto.ApprovalCreateRequest;
+import erp.approvalrequest.dto.ApprovalPageResponse;
 import erp.approvalrequest.dto.ApprovalResponse;
+import erp.approvalrequest.service.ApprovalExportService;
 import erp.approvalrequest.service.ApprovalRequestService;
+import erp.shared.proto.approval.StepStatus;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -22,7 +30,10 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ApprovalController {
 
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ApprovalRequestService approvalRequestService;
+    private final ApprovalExportService approvalExportService;
 
     @PostMapping
     public ResponseEntity<ApprovalResponse> create(@Validated @RequestBody ApprovalCreateRequest request) {
@@ -41,6 +52,27 @@ public class ApprovalController {
         return ResponseEntity.ok(approvalRequestService.listForCurrentUser());
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<ApprovalPageResponse> listPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) StepStatus finalStatus) {
+        return ResponseEntity.ok(approvalRequestService.listPageForCurrentUser(limit, after, finalStatus));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") ApprovalExportService.Format format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        ApprovalExportService.ExportWriter writer = approvalExportService.export(format, from, to);
+        MediaType contentType = format == ApprovalExportService.Format.PROTOBUF
+                ? InternalApprovalController.PROTOBUF_DELIMITED
+                : NDJSON;
+        StreamingResponseBody body = writer::writeTo;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApprovalResponse> get(@PathVariable("id") Long requestId) {
         return ResponseEntity.ok(approvalRequestService.findOne(requestId));
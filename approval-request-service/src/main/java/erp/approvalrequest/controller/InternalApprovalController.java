@@ -0,0 +1,35 @@
+package erp.approvalrequest.controller;
+
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import erp.approvalrequest.service.PendingApprovalStreamService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 서비스 간 내부 호출 전용 API. api-gateway 에서 /internal/** 은 외부로 노출되지 않는다.
+ */
+@RestController
+@RequestMapping("/internal/approvals")
+@RequiredArgsConstructor
+public class InternalApprovalController {
+
+    public static final MediaType PROTOBUF_DELIMITED = MediaType.parseMediaType("application/x-protobuf-delimited");
+
+    private final PendingApprovalStreamService pendingApprovalStreamService;
+
+    @GetMapping("/pending")
+    public ResponseEntity<StreamingResponseBody> pending(
+            @RequestParam(defaultValue = "1") int shardCount,
+            @RequestParam(required = false) Set<Integer> shards) {
+        StreamingResponseBody body = out -> pendingApprovalStreamService.writePending(shardCount, shards, out);
+        return ResponseEntity.ok().contentType(PROTOBUF_DELIMITED).body(body);
+    }
+}
@@ -1,7 +1,10 @@
 package erp.approvalrequest.domain;
 
 import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
@@ -24,7 +27,8 @@ import lombok.NoArgsConstructor;
 @Document(collection = "approvals")
 @CompoundIndexes({
         @CompoundIndex(name = "requester_idx", def = "{requesterId:1}", background = true),
-        @CompoundIndex(name = "approver_idx", def = "{'steps.approverId':1}", background = true)
+        @CompoundIndex(name = "approver_idx", def = "{'steps.approverId':1}", background = true),
+        @CompoundIndex(name = "participant_request_idx", def = "{participantIds:1, requestId:-1}", background = true)
 })
 public class ApprovalDocument {
     @Id
@@ -36,6 +40,10 @@ public class ApprovalDocument {
     private String title;
     private String content;
     private List<StepInfo> steps;
+    /**
+     * 요청자와 결재자 id. "내 결재" 조회를 $or 없이 participant_request_idx 한 구간 스캔으로 처리하기 위해 생성 시 채운다.
+     */
+    private List<Long> participantIds;
     private Instant createdAt;
     private Instant updatedAt;
     private StepStatus finalStatus;
@@ -43,6 +51,20 @@ public class ApprovalDocument {
     @Version
     private Long version;
 
+    public static List<Long> participantsOf(Long requesterId, List<StepInfo> steps) {
+        Set<Long> participants = new LinkedHashSet<>();
+        if (requesterId != null) {
+            participants.add(requesterId);
+        }
+        if (steps != null) {
+            steps.stream()
+                    .map(StepInfo::getApproverId)
+                    .filter(Objects::nonNull)
+                    .forEach(participants::add);
+        }
+        return List.copyOf(participants);
+    }
+
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
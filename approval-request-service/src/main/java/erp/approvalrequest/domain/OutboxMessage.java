@@ -0,0 +1,40 @@
+package erp.approvalrequest.domain;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * RabbitMQ 로 보낼 메시지. 결재 문서와 같은 트랜잭션에서 기록하고, 릴레이가 발행 확인 후 지운다.
+ * 발행이 계속 실패하면 릴레이가 시도 횟수를 세다가 데드레터 컬렉션으로 옮긴다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Document(collection = "approval_outbox")
+public class OutboxMessage {
+    @Id
+    private String id;
+
+    private String exchange;
+    private String routingKey;
+    private byte[] payload;
+    private Instant createdAt;
+
+    /** 확인받지 못한 발행 시도 횟수 */
+    private int attempts;
+    private String lastError;
+
+    public void recordFailure(String error) {
+        this.attempts++;
+        this.lastError = error;
+    }
+}
@@ -0,0 +1,8 @@
+package erp.approvalrequest.dto;
+
+import java.util.List;
+
+/**
+ * 결재 목록 페이지. nextCursor 는 다음 페이지 요청의 after 값이며, 마지막 페이지면 null 이다.
+ */
+public record ApprovalPageResponse(List<ApprovalSummaryResponse> items, Long nextCursor) {}
@@ -0,0 +1,34 @@
+package erp.approvalrequest.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.approvalrequest.dto.ApprovalResponse.StepResponse;
+import erp.shared.proto.approval.StepStatus;
+
+/**
+ * 결재 목록용 요약 DTO. 본문(content)은 포함하지 않는다.
+ */
+public record ApprovalSummaryResponse(
+        Long requestId,
+        Long requesterId,
+        String title,
+        List<StepResponse> steps,
+        StepStatus finalStatus,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    public static ApprovalSummaryResponse from(ApprovalDocument doc) {
+        return new ApprovalSummaryResponse(
+                doc.getRequestId(),
+                doc.getRequesterId(),
+                doc.getTitle(),
+                doc.getSteps().stream()
+                        .map(s -> new StepResponse(s.getStep(), s.getApproverId(), s.getStatus()))
+                        .toList(),
+                doc.getFinalStatus(),
+                doc.getCreatedAt(),
+                doc.getUpdatedAt());
+    }
+}
@@ -6,20 +6,50 @@ import static erp.common.messaging.ApprovalMessagingConstants.RESULT_QUEUE_NAME;
 import static erp.common.messaging.ApprovalMessagingConstants.ROUTING_KEY_REQUEST;
 import static erp.common.messaging.ApprovalMessagingConstants.ROUTING_KEY_RESULT;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.amqp.core.BatchMessageListener;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Exchange;
 import org.springframework.amqp.core.ExchangeBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import erp.common.messaging.ApprovalSharding;
+import erp.common.messaging.ConfirmingPublisher;
+import erp.common.messaging.NotificationMessagingConstants;
 
 @Configuration
 @EnableRabbit
 public class ApprovalRequestMessagingConfig {
 
+    /**
+     * 결재 메시지 발행기. 메시지마다 브로커 확인을 future 로 받고, batch-size 가 2 이상이면 모아서 발행한다.
+     */
+    @Bean(destroyMethod = "close")
+    public ConfirmingPublisher confirmingPublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${approval.publisher.batch-size}") int batchSize,
+            @Value("${approval.publisher.max-delay-millis}") long maxDelayMillis,
+            @Value("${approval.publisher.confirm-timeout-millis}") long confirmTimeoutMillis) {
+        return new ConfirmingPublisher(rabbitTemplate, batchSize, maxDelayMillis, confirmTimeoutMillis);
+    }
+
     @Bean
     public Exchange approvalExchange() {
         return ExchangeBuilder.topicExchange(EXCHANGE_NAME).durable(true).build();
@@ -43,6 +73,24 @@ public class ApprovalRequestMessagingConfig {
                 .noargs();
     }
 
+    /**
+     * 샤딩 사용 시 샤드별 요청 큐와 바인딩. 처리 노드가 아직 떠 있지 않아도 메시지가 유실되지 않도록 발행 측에서도 선언한다.
+     */
+    @Bean
+    public Declarables approvalRequestShardQueues(
+            Exchange approvalExchange, @Value("${approval.sharding.shard-count}") int shardCount) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shardCount > 1 && shard < shardCount; shard++) {
+            Queue queue = QueueBuilder.durable(ApprovalSharding.shardQueueName(shard)).build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue)
+                    .to(approvalExchange)
+                    .with(ApprovalSharding.shardRoutingKey(shard))
+                    .noargs());
+        }
+        return new Declarables(declarables);
+    }
+
     @Bean
     public Binding approvalResultBinding(Queue approvalResultQueue, Exchange approvalExchange) {
         return BindingBuilder.bind(approvalResultQueue)
@@ -50,4 +98,98 @@ public class ApprovalRequestMessagingConfig {
                 .with(ROUTING_KEY_RESULT)
                 .noargs();
     }
+
+    /**
+     * 결과 파티션 큐와 바인딩. single-active-consumer 라 여러 인스턴스가 떠 있어도 큐마다 한 소비자만 받는다.
+     */
+    @Bean
+    public Declarables approvalResultPartitionQueues(
+            Exchange approvalExchange, @Value("${approval.sharding.result-partitions}") int partitions) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partitions > 1 && partition < partitions; partition++) {
+            Queue queue = QueueBuilder.durable(ApprovalSharding.resultPartitionQueueName(partition))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue)
+                    .to(approvalExchange)
+                    .with(ApprovalSharding.resultPartitionRoutingKey(partition))
+                    .noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * 결과 큐마다 소비자 하나짜리 컨테이너를 등록한다. 한 요청의 결과는 같은 파티션으로 가므로 순서대로 처리되고,
+     * 파티션끼리는 병렬로 처리된다. 기존 단일 결과 큐는 이전 버전이 발행한 메시지를 비우도록 계속 구독한다.
+     * 기존 큐는 인자를 바꿔 다시 선언할 수 없어 single-active-consumer 를 쓰지 못하므로 exclusive 소비자로 구독한다.
+     * 인스턴스 하나만 구독에 성공하고 나머지는 재시도하다 그 인스턴스가 멈추면 이어받으므로, 인스턴스가 여럿이어도
+     * 같은 요청의 결과가 병렬로 처리되지 않는다.
+     * batch-enabled 면 approvalResultBatchContainerFactory 로 묶음을 받아 한 번에 반영한다.
+     */
+    @Bean
+    public RabbitListenerConfigurer approvalResultListeners(
+            ApprovalResultListener approvalResultListener,
+            SimpleRabbitListenerContainerFactory approvalResultBatchContainerFactory,
+            @Value("${approval.sharding.result-partitions}") int partitions,
+            @Value("${approval.result.consumer.batch-enabled}") boolean batchEnabled) {
+        List<String> queueNames = new ArrayList<>();
+        queueNames.add(RESULT_QUEUE_NAME);
+        for (int partition = 0; partitions > 1 && partition < partitions; partition++) {
+            queueNames.add(ApprovalSharding.resultPartitionQueueName(partition));
+        }
+        return registrar -> {
+            for (String queueName : queueNames) {
+                SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+                endpoint.setId("approvalResult-" + queueName);
+                endpoint.setQueueNames(queueName);
+                endpoint.setConcurrency("1");
+                endpoint.setExclusive(RESULT_QUEUE_NAME.equals(queueName));
+                if (batchEnabled) {
+                    endpoint.setBatchListener(true);
+                    endpoint.setMessageListener((BatchMessageListener) approvalResultListener::handleResults);
+                    registrar.registerEndpoint(endpoint, approvalResultBatchContainerFactory);
+                } else {
+                    endpoint.setMessageListener(message -> approvalResultListener.handleResult(message.getBody()));
+                    registrar.registerEndpoint(endpoint);
+                }
+            }
+        };
+    }
+
+    /**
+     * 결과를 batch-size 개씩(혹은 receive-timeout 동안 모인 만큼) 묶어 한 번에 넘기고 묶음 단위로 ack 한다.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory approvalResultBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${approval.result.consumer.batch-size}") int batchSize,
+            @Value("${approval.result.consumer.prefetch}") int prefetch,
+            @Value("${approval.result.consumer.receive-timeout-millis}") long receiveTimeoutMillis) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        return factory;
+    }
+
+    /**
+     * 알림 exchange 와 큐. notification-service 가 아직 떠 있지 않아도 알림이 유실되지 않도록 발행 측에서도 선언한다.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "notification", name = "transport", havingValue = "amqp")
+    public Declarables notificationTopology() {
+        Exchange exchange = ExchangeBuilder.directExchange(NotificationMessagingConstants.EXCHANGE_NAME)
+                .durable(true)
+                .build();
+        Queue queue = QueueBuilder.durable(NotificationMessagingConstants.QUEUE_NAME).build();
+        return new Declarables(exchange, queue, BindingBuilder.bind(queue)
+                .to(exchange)
+                .with(NotificationMessagingConstants.ROUTING_KEY)
+                .noargs());
+    }
 }
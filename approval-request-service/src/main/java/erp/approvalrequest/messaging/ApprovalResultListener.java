@@ -1,9 +1,10 @@
 package erp.approvalrequest.messaging;
 
-import static erp.common.messaging.ApprovalMessagingConstants.RESULT_QUEUE_NAME;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.core.Message;
 import org.springframework.stereotype.Component;
 
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -14,6 +15,9 @@ import erp.shared.proto.approval.ApprovalResultRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 결재 결과 큐 소비자. 구독할 큐와 건별/묶음 모드는 ApprovalRequestMessagingConfig 에서 등록한다.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -21,7 +25,6 @@ public class ApprovalResultListener {
 
     private final ApprovalRequestService approvalRequestService;
 
-    @RabbitListener(queues = RESULT_QUEUE_NAME)
     public void handleResult(byte[] payload) {
         try {
             ApprovalResultRequest request = ApprovalResultRequest.parseFrom(payload);
@@ -34,4 +37,22 @@ public class ApprovalResultListener {
             log.warn("비즈니스 예외로 결과 메시지를 무시합니다: {}", e.getErrorCode());
         }
     }
+
+    /**
+     * 묶음으로 받은 결과를 한 번에 반영하고 묶음 단위로 ack 한다.
+     * 해석할 수 없는 메시지는 건너뛰어 묶음 전체가 재전달되지 않게 한다.
+     */
+    public void handleResults(List<Message> messages) {
+        List<ApprovalResultRequest> results = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                results.add(ApprovalResultRequest.parseFrom(message.getBody()));
+            } catch (InvalidProtocolBufferException e) {
+                log.error("결재 결과 메시지 역직렬화에 실패해 건너뜁니다.", e);
+            }
+        }
+        if (!results.isEmpty()) {
+            approvalRequestService.updateResults(results);
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package erp.approvalrequest.messaging;
+
+import static erp.common.messaging.NotificationMessagingConstants.EXCHANGE_NAME;
+import static erp.common.messaging.NotificationMessagingConstants.ROUTING_KEY;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import erp.approvalrequest.client.NotificationSender;
+import erp.common.messaging.ConfirmingPublisher;
+import erp.shared.proto.notification.Notification;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 알림을 notification.exchange 로 발행한다. notification-service 가 묶음으로 받아 웹소켓 세션에 전달한다.
+ * 브로커 확인을 받을 때까지 기다리며, nack·반송·시간 초과면 예외를 던져 디스패처가 재시도하게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "notification", name = "transport", havingValue = "amqp")
+public class NotificationPublisher implements NotificationSender {
+
+    private final ConfirmingPublisher confirmingPublisher;
+
+    @Override
+    public void send(Long employeeId, String payload) {
+        Notification notification = Notification.newBuilder()
+                .setEmployeeId(employeeId)
+                .setPayload(payload)
+                .build();
+        confirmingPublisher.publish(EXCHANGE_NAME, ROUTING_KEY, notification.toByteArray()).join();
+    }
+}
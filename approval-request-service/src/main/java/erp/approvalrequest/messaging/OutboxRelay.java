@@ -0,0 +1,141 @@
+package erp.approvalrequest.messaging;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import erp.approvalrequest.domain.OutboxMessage;
+import erp.approvalrequest.repository.OutboxRepository;
+import erp.common.messaging.ConfirmingPublisher;
+import erp.common.messaging.ConfirmingPublisher.Outbound;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 아웃박스에 쌓인 메시지를 기록 순서대로 묶어 발행하고, 브로커 확인(publisher confirm)을 받은 메시지를 지운다.
+ * 확인 전에 중단되면 다음 주기에 다시 발행하므로 소비자는 같은 메시지를 두 번 받을 수 있다.
+ *
+ * <p>확인받지 못한 메시지(nack·반송·시간 초과)는 시도 횟수를 올려 남겨 두고, max-attempts 에 이르면
+ * 데드레터 컬렉션으로 옮긴다. 계속 실패하는 메시지 하나가 아웃박스 앞을 막아 이후 발행이 멈추지 않게 하기 위함이며,
+ * 그 대신 실패한 메시지는 같은 묶음의 뒤 메시지보다 늦게 나갈 수 있다.
+ *
+ * <p>여러 인스턴스가 같은 묶음을 동시에 발행하지 않도록 릴레이 임대(lease)를 쥔 인스턴스 하나만 발행한다.
+ * 임대는 묶음마다 연장하고, 쥔 인스턴스가 멈추면 lease-millis 뒤 다른 인스턴스가 이어받는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "approval.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String LEASE_COLLECTION = "approval_outbox_relay_lease";
+    static final String DEAD_LETTER_COLLECTION = "approval_outbox_dead";
+    private static final String LEASE_ID = "relay";
+
+    private final OutboxRepository outboxRepository;
+    private final ConfirmingPublisher confirmingPublisher;
+    private final MongoOperations mongoOperations;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${approval.outbox.relay.batch-size}")
+    private int batchSize;
+
+    @Value("${approval.outbox.relay.lease-millis}")
+    private long leaseMillis;
+
+    @Value("${approval.outbox.relay.max-attempts}")
+    private int maxAttempts;
+
+    @Scheduled(fixedDelayString = "${approval.outbox.relay.interval-millis}")
+    public void relay() {
+        try {
+            while (holdLease() && relayBatch() >= batchSize) {
+                // 가득 찬 묶음을 모두 처리했으면 밀린 메시지가 더 있을 수 있으므로 이어서 보낸다
+            }
+        } catch (RuntimeException e) {
+            log.warn("아웃박스 발행에 실패했습니다. 다음 주기에 다시 시도합니다: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return 발행 확인 후 지우거나 데드레터로 옮겨 아웃박스에서 빠진 메시지 수
+     */
+    public int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Void>> results = confirmingPublisher.publishEach(batch.stream()
+                .map(message -> new Outbound(message.getExchange(), message.getRoutingKey(), message.getPayload()))
+                .toList());
+
+        List<String> confirmed = new ArrayList<>();
+        int removed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Throwable error = results.get(i).handle((ok, e) -> e).join();
+            if (error == null) {
+                confirmed.add(batch.get(i).getId());
+            } else if (recordFailure(batch.get(i), error)) {
+                removed++;
+            }
+        }
+        outboxRepository.deleteAllById(confirmed);
+        return confirmed.size() + removed;
+    }
+
+    /**
+     * 시도 횟수를 올려 남겨 두고, max-attempts 에 이르면 데드레터 컬렉션으로 옮긴다.
+     *
+     * @return 데드레터로 옮겼으면 true
+     */
+    private boolean recordFailure(OutboxMessage message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        message.recordFailure(cause.getMessage());
+        if (message.getAttempts() < maxAttempts) {
+            log.warn("아웃박스 메시지 발행이 확인되지 않았습니다. id={}, routingKey={}, 시도 {}/{}: {}",
+                    message.getId(), message.getRoutingKey(), message.getAttempts(), maxAttempts, cause.getMessage());
+            outboxRepository.save(message);
+            return false;
+        }
+        log.error("아웃박스 메시지를 {}번 발행하지 못해 데드레터로 옮깁니다. id={}, routingKey={}: {}",
+                message.getAttempts(), message.getId(), message.getRoutingKey(), cause.getMessage());
+        // save 는 같은 _id 를 덮어쓰므로 옮기다 중단돼 다시 옮겨도 중복되지 않는다
+        mongoOperations.save(message, DEAD_LETTER_COLLECTION);
+        outboxRepository.deleteById(message.getId());
+        return true;
+    }
+
+    /**
+     * 릴레이 임대를 새로 잡거나 이미 쥐고 있으면 연장한다.
+     *
+     * @return 다른 인스턴스가 유효한 임대를 쥐고 있으면 false
+     */
+    boolean holdLease() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        Update update = new Update().set("owner", owner).set("expiresAt", now.plusMillis(leaseMillis));
+        try {
+            mongoOperations.upsert(query, update, LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // 조건에 맞지 않아 새로 넣으려던 _id 가 이미 있다: 다른 인스턴스가 쥐고 있다
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package erp.approvalrequest.migration;
+
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import erp.approvalrequest.domain.ApprovalDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * participantIds 가 없는 기존 결재 문서를 요청자/결재자 id 로 채운다.
+ * 채워진 문서는 조건에서 빠지므로 여러 번 실행해도 남은 문서만 처리한다.
+ *
+ * <p>"내 결재" 조회가 participant_request_idx 와 채워진 participantIds 에 기대므로, 인덱스 생성과 채우기를
+ * 웹 서버와 리스너가 시작되기 전(싱글톤 초기화 직후)에 끝낸다. 운영에서는 auto-index-creation 을 켜지 않으므로
+ * 인덱스도 여기서 직접 만든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParticipantIdsMigration implements SmartInitializingSingleton {
+
+    static final String INDEX_NAME = "participant_request_idx";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${approval.migration.participant-ids.enabled}")
+    private boolean enabled;
+
+    @Value("${approval.migration.participant-ids.batch-size}")
+    private int batchSize;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureIndex();
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        long migrated = migrate();
+        if (migrated > 0) {
+            log.info("결재 문서 {}건에 participantIds 를 채웠습니다. ({}ms)", migrated, System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    void ensureIndex() {
+        mongoTemplate.indexOps(ApprovalDocument.class).ensureIndex(new Index()
+                .on("participantIds", Sort.Direction.ASC)
+                .on("requestId", Sort.Direction.DESC)
+                .named(INDEX_NAME)
+                .background());
+    }
+
+    public long migrate() {
+        Query query = new Query(Criteria.where("participantIds").exists(false));
+        query.fields().include("requesterId").include("steps.approverId");
+
+        long migrated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<ApprovalDocument> docs = mongoTemplate.stream(query, ApprovalDocument.class)) {
+            for (ApprovalDocument doc : (Iterable<ApprovalDocument>) docs::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ApprovalDocument.class);
+                }
+                bulk.updateOne(
+                        new Query(Criteria.where("_id").is(doc.getId())),
+                        new Update().set("participantIds",
+                                ApprovalDocument.participantsOf(doc.getRequesterId(), doc.getSteps())));
+                if (++pending >= batchSize) {
+                    migrated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            migrated += bulk.execute().getModifiedCount();
+        }
+        return migrated;
+    }
+}
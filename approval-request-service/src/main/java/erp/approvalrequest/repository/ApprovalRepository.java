@@ -1,16 +1,26 @@
 package erp.approvalrequest.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import erp.approvalrequest.domain.ApprovalDocument;
+import erp.shared.proto.approval.StepStatus;
 
-public interface ApprovalRepository extends MongoRepository<ApprovalDocument, String> {
+public interface ApprovalRepository extends MongoRepository<ApprovalDocument, String>, ApprovalRepositoryCustom {
     List<ApprovalDocument> findByRequesterId(Long requesterId);
 
-    List<ApprovalDocument> findByRequesterIdOrStepsApproverId(Long requesterId, Long approverId);
+    List<ApprovalDocument> findByParticipantIdsOrderByRequestIdDesc(Long participantId);
 
     Optional<ApprovalDocument> findByRequestId(Long requestId);
+
+    List<ApprovalDocument> findByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Mongo 커서로 한 건씩 읽는다. 사용 후 반드시 닫아야 한다.
+     */
+    Stream<ApprovalDocument> streamByFinalStatus(StepStatus finalStatus);
 }
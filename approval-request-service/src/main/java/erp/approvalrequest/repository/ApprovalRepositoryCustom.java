@@ -0,0 +1,45 @@
+package erp.approvalrequest.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.shared.proto.approval.StepStatus;
+
+public interface ApprovalRepositoryCustom {
+
+    /**
+     * requestId 내림차순 keyset 페이지. 목록용이므로 content 는 읽지 않는다.
+     *
+     * @param participantId 요청자 또는 결재자로 참여한 사용자로 제한할 때 지정, null 이면 전체
+     * @param beforeRequestId 이 값보다 작은 requestId 만 조회, null 이면 처음부터
+     * @param finalStatus 최종 상태로 제한할 때 지정, null 이면 전체
+     */
+    List<ApprovalDocument> findSummaryPage(Long participantId, Long beforeRequestId, StepStatus finalStatus, int limit);
+
+    /**
+     * (step, approverId) 단계가 PENDING 이고 앞선 단계가 모두 승인된 경우에만 그 단계를 status 로 바꾼다.
+     * 조건 확인과 변경을 findAndModify 한 번으로 처리하며, 반려면 finalStatus 도 함께 REJECTED 로 바꾼다.
+     *
+     * @return 변경된 문서, 조건이 맞지 않으면 빈 값
+     */
+    Optional<ApprovalDocument> transitionStep(long requestId, long approverId, int step, StepStatus status, Instant now);
+
+    /**
+     * 모든 단계가 승인됐고 finalStatus 가 아직 PENDING 이면 APPROVED 로 바꾼다.
+     *
+     * @return 이번 호출로 바뀌었으면 true
+     */
+    boolean completeIfAllApproved(long requestId, Instant now);
+
+    /**
+     * 메모리에서 전이를 반영한 문서들의 steps 와 finalStatus 를 bulkWrite 한 번으로 저장한다.
+     * 읽은 뒤 다른 쓰기가 끼어든 문서는 version 이 달라 저장하지 않는다.
+     * 버전 확인과 저장 사이의 끼어들기는 트랜잭션 안에서 호출해야 쓰기 충돌로 드러난다.
+     * 트랜잭션 밖에서 끼어들기가 감지되면 OptimisticLockingFailureException 을 던진다.
+     *
+     * @return 이번 호출이 저장한 문서
+     */
+    List<ApprovalDocument> saveTransitions(List<ApprovalDocument> documents, Instant now);
+}
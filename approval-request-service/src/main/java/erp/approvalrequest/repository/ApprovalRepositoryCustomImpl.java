@@ -0,0 +1,125 @@
+package erp.approvalrequest.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.shared.proto.approval.StepStatus;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ApprovalRepositoryCustomImpl implements ApprovalRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<ApprovalDocument> findSummaryPage(
+            Long participantId, Long beforeRequestId, StepStatus finalStatus, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (participantId != null) {
+            criteria.add(Criteria.where("participantIds").is(participantId));
+        }
+        if (beforeRequestId != null) {
+            criteria.add(Criteria.where("requestId").lt(beforeRequestId));
+        }
+        if (finalStatus != null) {
+            criteria.add(Criteria.where("finalStatus").is(finalStatus));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria));
+        query.with(Sort.by(Sort.Direction.DESC, "requestId")).limit(limit);
+        query.fields().exclude("content");
+        return mongoTemplate.find(query, ApprovalDocument.class);
+    }
+
+    @Override
+    public Optional<ApprovalDocument> transitionStep(
+            long requestId, long approverId, int step, StepStatus status, Instant now) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("requestId").is(requestId),
+                Criteria.where("finalStatus").is(StepStatus.STEP_STATUS_PENDING),
+                Criteria.where("steps").elemMatch(Criteria.where("step").is(step)
+                        .and("approverId").is(approverId)
+                        .and("status").is(StepStatus.STEP_STATUS_PENDING)),
+                // 첫 pending 단계여야 한다: 앞선 단계 중 승인되지 않은 것이 없어야 함
+                new Criteria().norOperator(Criteria.where("steps").elemMatch(Criteria.where("step").lt(step)
+                        .and("status").ne(StepStatus.STEP_STATUS_APPROVED)))));
+
+        Update update = new Update()
+                .set("steps.$[target].status", status)
+                .set("steps.$[target].updatedAt", now)
+                .set("updatedAt", now)
+                .inc("version", 1)
+                .filterArray(Criteria.where("target.step").is(step).and("target.approverId").is(approverId));
+        if (status == StepStatus.STEP_STATUS_REJECTED) {
+            update.set("finalStatus", StepStatus.STEP_STATUS_REJECTED);
+        }
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), ApprovalDocument.class));
+    }
+
+    @Override
+    public boolean completeIfAllApproved(long requestId, Instant now) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("requestId").is(requestId),
+                Criteria.where("finalStatus").is(StepStatus.STEP_STATUS_PENDING),
+                new Criteria().norOperator(Criteria.where("steps").elemMatch(
+                        Criteria.where("status").ne(StepStatus.STEP_STATUS_APPROVED)))));
+        Update update = new Update()
+                .set("finalStatus", StepStatus.STEP_STATUS_APPROVED)
+                .set("updatedAt", now)
+                .inc("version", 1);
+        return mongoTemplate.updateFirst(query, update, ApprovalDocument.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public List<ApprovalDocument> saveTransitions(List<ApprovalDocument> documents, Instant now) {
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+        Query versions = new Query(Criteria.where("requestId")
+                .in(documents.stream().map(ApprovalDocument::getRequestId).toList()));
+        versions.fields().include("requestId", "version");
+        Map<Long, Long> current = mongoTemplate.find(versions, ApprovalDocument.class).stream()
+                .collect(Collectors.toMap(ApprovalDocument::getRequestId, ApprovalDocument::getVersion));
+        List<ApprovalDocument> fresh = documents.stream()
+                .filter(document -> document.getVersion().equals(current.get(document.getRequestId())))
+                .toList();
+        if (fresh.isEmpty()) {
+            return fresh;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ApprovalDocument.class);
+        for (ApprovalDocument document : fresh) {
+            Query query = new Query(Criteria.where("requestId").is(document.getRequestId())
+                    .and("version").is(document.getVersion()));
+            Update update = new Update()
+                    .set("steps", document.getSteps())
+                    .set("finalStatus", document.getFinalStatus())
+                    .set("updatedAt", now)
+                    .inc("version", 1);
+            bulk.updateOne(query, update);
+        }
+        if (bulk.execute().getModifiedCount() != fresh.size()) {
+            // 버전을 읽은 뒤 쓰기 전에 다른 쓰기가 끼어들었다. 어느 문서인지 알 수 없으므로 묶음 전체를 실패시킨다
+            throw new OptimisticLockingFailureException("approval documents changed during saveTransitions");
+        }
+        return fresh;
+    }
+}
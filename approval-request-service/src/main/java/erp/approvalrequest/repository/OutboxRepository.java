@@ -0,0 +1,16 @@
+package erp.approvalrequest.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import erp.approvalrequest.domain.OutboxMessage;
+
+public interface OutboxRepository extends MongoRepository<OutboxMessage, String> {
+
+    /**
+     * 기록된 순서(_id 오름차순)로 읽는다.
+     */
+    List<OutboxMessage> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,122 @@
+package erp.approvalrequest.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.approvalrequest.dto.ApprovalResponse;
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
+import erp.common.security.AuthUtil;
+import erp.common.security.Role;
+import erp.shared.proto.approval.ApprovalRecord;
+import erp.shared.proto.approval.Step;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 감사용 전체 결재 내보내기. Mongo 커서로 한 건씩 읽어 바로 응답 스트림에 쓰므로 건수와 무관하게 메모리 사용이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ApprovalExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuthUtil authUtil;
+
+    public enum Format {
+        NDJSON,
+        PROTOBUF
+    }
+
+    @FunctionalInterface
+    public interface ExportWriter {
+        /**
+         * @return 기록한 건수
+         */
+        long writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 권한은 요청 스레드에서 바로 확인하고, 실제 기록은 반환한 writer 를 응답 스트림에 연결할 때 수행한다.
+     *
+     * @param from createdAt 하한(포함), null 이면 제한 없음
+     * @param to createdAt 상한(미포함), null 이면 제한 없음
+     */
+    public ExportWriter export(Format format, Instant from, Instant to) {
+        if (!authUtil.hasRole(Role.ADMIN)) {
+            throw new CustomException(ErrorCode.FORBIDDEN);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+        Query query = new Query();
+        if (from != null || to != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (from != null) {
+                createdAt = createdAt.gte(from);
+            }
+            if (to != null) {
+                createdAt = createdAt.lt(to);
+            }
+            query.addCriteria(createdAt);
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "requestId"));
+        return out -> write(query, format, out);
+    }
+
+    private long write(Query query, Format format, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<ApprovalDocument> docs = mongoTemplate.stream(query, ApprovalDocument.class)) {
+            Iterator<ApprovalDocument> it = docs.iterator();
+            while (it.hasNext()) {
+                ApprovalDocument doc = it.next();
+                if (format == Format.PROTOBUF) {
+                    toRecord(doc).writeDelimitedTo(out);
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(ApprovalResponse.from(doc)));
+                    out.write('\n');
+                }
+                if (++written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return written;
+    }
+
+    static ApprovalRecord toRecord(ApprovalDocument doc) {
+        ApprovalRecord.Builder builder = ApprovalRecord.newBuilder()
+                .setRequestId(doc.getRequestId())
+                .setRequesterId(doc.getRequesterId())
+                .setTitle(doc.getTitle())
+                .setContent(doc.getContent())
+                .setFinalStatus(doc.getFinalStatus());
+        if (doc.getCreatedAt() != null) {
+            builder.setCreatedAtMillis(doc.getCreatedAt().toEpochMilli());
+        }
+        if (doc.getUpdatedAt() != null) {
+            builder.setUpdatedAtMillis(doc.getUpdatedAt().toEpochMilli());
+        }
+        doc.getSteps().forEach(step -> builder.addSteps(Step.newBuilder()
+                .setStep(step.getStep())
+                .setApproverId(step.getApproverId())
+                .setStatus(step.getStatus())
+                .build()));
+        return builder.build();
+    }
+}
@@ -3,66 +3,80 @@ package erp.approvalrequest.service;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mongodb.MongoException;
 
 import erp.approvalrequest.client.EmployeeClient;
-import erp.approvalrequest.client.NotificationClient;
+import erp.approvalrequest.client.NotificationDispatcher;
 import erp.approvalrequest.domain.ApprovalDocument;
+import erp.approvalrequest.domain.OutboxMessage;
 import erp.approvalrequest.dto.ApprovalCreateRequest;
+import erp.approvalrequest.dto.ApprovalPageResponse;
 import erp.approvalrequest.dto.ApprovalResponse;
+import erp.approvalrequest.dto.ApprovalSummaryResponse;
 import erp.approvalrequest.repository.ApprovalRepository;
+import erp.approvalrequest.repository.OutboxRepository;
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
 import erp.common.security.AuthUtil;
 import erp.common.security.Role;
 import erp.common.messaging.ApprovalMessagingConstants;
+import erp.common.messaging.ApprovalSharding;
 import erp.shared.proto.approval.ApprovalRequest;
+import erp.shared.proto.approval.ApprovalResultRequest;
 import erp.shared.proto.approval.ApprovalResultStatus;
 import erp.shared.proto.approval.Step;
 import erp.shared.proto.approval.StepStatus;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class ApprovalRequestService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ApprovalRepository approvalRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
     private final AuthUtil authUtil;
     private final RequestIdGenerator requestIdGenerator;
     private final EmployeeClient employeeClient;
-    private final NotificationClient notificationClient;
-
-    @Value("${processing.retry.max-attempts}")
-    private int processingMaxAttempts;
-
-    @Value("${processing.retry.backoff-millis}")
-    private long processingBackoffMillis;
+    private final NotificationDispatcher notificationDispatcher;
 
-    @Value("${approval.lock.retry.max-attempts}")
-    private int lockMaxAttempts;
+    @Value("${approval.sharding.shard-count}")
+    private int shardCount;
 
-    @Value("${approval.lock.retry.backoff-millis}")
-    private long lockBackoffMillis;
+    @Value("${approval.transaction.max-attempts}")
+    private int transactionMaxAttempts;
 
-    @Transactional
     public ApprovalResponse create(ApprovalCreateRequest request) {
         Long requesterId = authUtil.currentUserId();
-        employeeClient.findById(requesterId); // 요청자 존재 확인
-
         List<ApprovalCreateRequest.StepDto> steps = request.steps();
 
-        validateSteps(requesterId, steps);
+        // 요청자와 모든 결재자를 한 번에 조회한다
+        Set<Long> employeeIds = new LinkedHashSet<>();
+        employeeIds.add(requesterId);
+        steps.forEach(step -> employeeIds.add(step.approverId()));
+        Map<Long, EmployeeClient.EmployeeDto> employees = employeeClient.findAllByIds(employeeIds);
+        if (!employees.containsKey(requesterId)) {
+            throw new CustomException(ErrorCode.EMPLOYEE_NOT_FOUND); // 요청자 존재 확인
+        }
+
+        validateSteps(requesterId, steps, employees);
 
         long requestId = requestIdGenerator.nextId();
         Instant now = Instant.now();
@@ -80,13 +94,18 @@ public class ApprovalRequestService {
                 .title(request.title())
                 .content(request.content())
                 .steps(stepInfos)
+                .participantIds(ApprovalDocument.participantsOf(requesterId, stepInfos))
                 .createdAt(now)
                 .updatedAt(now)
                 .finalStatus(StepStatus.STEP_STATUS_PENDING)
                 .build();
 
-        ApprovalDocument saved = approvalRepository.save(document);
-        sendToProcessing(saved);
+        // 문서와 처리 요청 메시지를 한 트랜잭션으로 기록하고, 발행은 OutboxRelay 가 맡는다
+        ApprovalDocument saved = transactionTemplate.execute(status -> {
+            ApprovalDocument inserted = approvalRepository.save(document);
+            sendToProcessing(inserted);
+            return inserted;
+        });
 
         return ApprovalResponse.from(saved);
     }
@@ -97,11 +116,31 @@ public class ApprovalRequestService {
         if (authUtil.hasRole(Role.ADMIN)) {
             docs = approvalRepository.findAll();
         } else {
-            docs = approvalRepository.findByRequesterIdOrStepsApproverId(userId, userId);
+            docs = approvalRepository.findByParticipantIdsOrderByRequestIdDesc(userId);
         }
         return docs.stream().map(ApprovalResponse::from).toList();
     }
 
+    /**
+     * requestId 내림차순 keyset 페이지 조회. 다음 페이지는 응답의 nextCursor 를 after 로 넘겨 이어 읽는다.
+     */
+    public ApprovalPageResponse listPageForCurrentUser(int limit, Long after, StepStatus finalStatus) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+        Long userId = authUtil.currentUserId();
+        Long participantId = authUtil.hasRole(Role.ADMIN) ? null : userId;
+
+        // 다음 페이지 존재 여부를 알기 위해 하나 더 읽는다
+        List<ApprovalDocument> docs = approvalRepository.findSummaryPage(participantId, after, finalStatus, limit + 1);
+        boolean hasNext = docs.size() > limit;
+        List<ApprovalDocument> page = hasNext ? docs.subList(0, limit) : docs;
+
+        List<ApprovalSummaryResponse> items = page.stream().map(ApprovalSummaryResponse::from).toList();
+        Long nextCursor = hasNext ? page.getLast().getRequestId() : null;
+        return new ApprovalPageResponse(items, nextCursor);
+    }
+
     public ApprovalResponse findOne(Long requestId) {
         ApprovalDocument doc = approvalRepository.findByRequestId(requestId)
                 .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_REQUEST_NOT_FOUND));
@@ -109,7 +148,6 @@ public class ApprovalRequestService {
         return ApprovalResponse.from(doc);
     }
 
-    @Transactional
     public void resendPending(Long requestId) {
         ApprovalDocument doc = approvalRepository.findByRequestId(requestId)
                 .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_REQUEST_NOT_FOUND));
@@ -117,22 +155,41 @@ public class ApprovalRequestService {
         sendToProcessing(doc);
     }
 
+    /**
+     * 단계 전이는 조건부 findAndModify 한 번으로 처리한다. 조건이 맞지 않았을 때만 문서를 읽어 원인을 판단한다.
+     * 전이와 다음 단계 요청 메시지는 한 트랜잭션으로 기록해, 전이만 남고 다음 단계 요청이 빠지는 일이 없게 한다.
+     */
     public void updateResult(long requestId, long approverId, int step, ApprovalResultStatus status) {
-        for (int attempt = 1; attempt <= Math.max(1, lockMaxAttempts); attempt++) {
-            try {
-                updateResultInternal(requestId, approverId, step, status);
-                return;
-            } catch (OptimisticLockingFailureException ex) {
-                if (attempt == lockMaxAttempts) {
-                    throw new CustomException(ErrorCode.APPROVAL_PROCESS_CONFLICT);
-                }
-                sleep(lockBackoffMillis);
+        StepStatus incoming = mapStatus(status);
+        Instant now = Instant.now();
+
+        Optional<ApprovalDocument> transitioned = inTransaction(() -> {
+            Optional<ApprovalDocument> result =
+                    approvalRepository.transitionStep(requestId, approverId, step, incoming, now);
+            if (incoming == StepStatus.STEP_STATUS_APPROVED) {
+                result.ifPresent(this::sendToProcessing);
             }
+            return result;
+        });
+        if (transitioned.isEmpty()) {
+            handleUnappliedResult(requestId, approverId, step, incoming);
+            return;
+        }
+
+        ApprovalDocument doc = transitioned.get();
+        if (incoming == StepStatus.STEP_STATUS_REJECTED) {
+            notifyRequester(doc, "rejected", approverId);
+            return;
+        }
+        if (nextPendingStep(doc).isPresent()) {
+            return;
+        }
+        if (approvalRepository.completeIfAllApproved(requestId, now)) {
+            notifyRequester(doc, "approved", approverId);
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    void updateResultInternal(long requestId, long approverId, int step, ApprovalResultStatus status) {
+    private void handleUnappliedResult(long requestId, long approverId, int step, StepStatus incoming) {
         ApprovalDocument doc = approvalRepository.findByRequestId(requestId)
                 .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_REQUEST_NOT_FOUND));
 
@@ -141,50 +198,137 @@ public class ApprovalRequestService {
                 .findFirst()
                 .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND));
 
-        // idempotent: 동일 상태면 그대로 통과, 다른 상태면 예외
-        if (target.getStatus() != StepStatus.STEP_STATUS_PENDING) {
-            StepStatus incoming = mapStatus(status);
-            if (target.getStatus() == incoming) {
-                return; // 중복 콜백이지만 상태 일치 → 무해 처리
-            }
+        // idempotent: 동일 상태면 그대로 통과, 다른 상태나 아직 차례가 아닌 pending 단계면 예외
+        if (target.getStatus() != incoming) {
             throw new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
         }
 
-        // 현재 처리 가능한 최우선 pending 단계인지 검증하여 idempotency 및 순서 보장
-        ApprovalDocument.StepInfo firstPending = doc.getSteps().stream()
-                .sorted(Comparator.comparingInt(ApprovalDocument.StepInfo::getStep))
-                .filter(s -> s.getStatus() == StepStatus.STEP_STATUS_PENDING)
-                .findFirst()
-                .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS));
-        if (!firstPending.equals(target)) {
-            throw new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
+        // 마지막 승인 후 최종 상태 반영 전에 중단됐다면 중복 콜백에서 마저 완료한다
+        if (incoming == StepStatus.STEP_STATUS_APPROVED
+                && nextPendingStep(doc).isEmpty()
+                && approvalRepository.completeIfAllApproved(requestId, Instant.now())) {
+            notifyRequester(doc, "approved", approverId);
         }
+    }
 
-        target.updateStatus(mapStatus(status));
-        doc.setUpdatedAt(Instant.now());
+    /**
+     * 결과 묶음을 반영한다. 대상 문서를 $in 한 번으로 읽어 메모리에서 전이하고 bulkWrite 한 번으로 저장한다.
+     * 반영할 수 없는 결과는 건별 처리와 같이 경고만 남기고 버린다.
+     */
+    public void updateResults(List<ApprovalResultRequest> results) {
+        Map<Long, List<ApprovalResultRequest>> byRequestId = results.stream()
+                .collect(Collectors.groupingBy(
+                        ApprovalResultRequest::getRequestId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, ApprovalDocument> documents = approvalRepository.findByRequestIdIn(byRequestId.keySet()).stream()
+                .collect(Collectors.toMap(ApprovalDocument::getRequestId, doc -> doc));
+
+        List<ApprovalDocument> changed = new ArrayList<>();
+        byRequestId.forEach((requestId, requestResults) -> {
+            ApprovalDocument doc = documents.get(requestId);
+            if (doc == null) {
+                log.warn("결재 결과를 반영하지 않습니다: {} requestId={}", ErrorCode.APPROVAL_REQUEST_NOT_FOUND, requestId);
+                return;
+            }
+            if (applyInMemory(doc, requestResults)) {
+                changed.add(doc);
+            }
+        });
 
-        if (status == ApprovalResultStatus.APPROVAL_RESULT_REJECTED) {
-            doc.setFinalStatus(StepStatus.STEP_STATUS_REJECTED);
-            approvalRepository.save(doc);
-            notifyRequester(doc, "rejected", approverId);
-            return;
+        // 문서 저장과 다음 단계 요청 기록을 한 트랜잭션으로 묶는다
+        Instant now = Instant.now();
+        List<ApprovalDocument> saved = inTransaction(() -> {
+            List<ApprovalDocument> written = approvalRepository.saveTransitions(changed, now);
+            List<OutboxMessage> messages = written.stream()
+                    .filter(doc -> doc.getFinalStatus() == StepStatus.STEP_STATUS_PENDING)
+                    .flatMap(doc -> processingMessage(doc).stream())
+                    .toList();
+            if (!messages.isEmpty()) {
+                outboxRepository.saveAll(messages);
+            }
+            return written;
+        });
+
+        // 읽은 뒤 다른 쓰기가 끼어든 문서의 결과는 건별 경로로 다시 반영한다
+        Set<Long> savedIds = saved.stream().map(ApprovalDocument::getRequestId).collect(Collectors.toSet());
+        changed.stream()
+                .filter(doc -> !savedIds.contains(doc.getRequestId()))
+                .forEach(doc -> updateEach(byRequestId.get(doc.getRequestId())));
+
+        for (ApprovalDocument doc : saved) {
+            if (doc.getFinalStatus() == StepStatus.STEP_STATUS_REJECTED) {
+                notifyRequester(doc, "rejected", rejectedBy(doc));
+            } else if (doc.getFinalStatus() == StepStatus.STEP_STATUS_APPROVED) {
+                notifyRequester(doc, "approved", null);
+            }
         }
+    }
 
-        boolean allApproved = doc.getSteps().stream()
-                .allMatch(s -> s.getStatus() == StepStatus.STEP_STATUS_APPROVED);
-
-        if (allApproved) {
+    private boolean applyInMemory(ApprovalDocument doc, List<ApprovalResultRequest> results) {
+        boolean modified = false;
+        for (ApprovalResultRequest result : results) {
+            try {
+                modified |= applyInMemory(doc, result.getApproverId(), result.getStep(), mapStatus(result.getStatus()));
+            } catch (CustomException e) {
+                log.warn("결재 결과를 반영하지 않습니다: {} requestId={}", e.getErrorCode(), doc.getRequestId());
+            }
+        }
+        // 마지막 승인 후 최종 상태 반영 전에 중단됐다면 이번 묶음에서 마저 완료한다
+        if (doc.getFinalStatus() == StepStatus.STEP_STATUS_PENDING && nextPendingStep(doc).isEmpty()) {
             doc.setFinalStatus(StepStatus.STEP_STATUS_APPROVED);
-            approvalRepository.save(doc);
-            notifyRequester(doc, "approved", approverId);
-            return;
+            modified = true;
         }
+        return modified;
+    }
 
-        approvalRepository.save(doc);
-        sendToProcessing(doc);
+    /**
+     * transitionStep 과 같은 조건으로 메모리의 문서에 결과를 반영한다.
+     *
+     * @return 반영했으면 true, 이미 같은 상태여서 무시했으면 false
+     */
+    private boolean applyInMemory(ApprovalDocument doc, long approverId, int step, StepStatus incoming) {
+        ApprovalDocument.StepInfo target = doc.getSteps().stream()
+                .filter(s -> s.getStep() == step && s.getApproverId().equals(approverId))
+                .findFirst()
+                .orElseThrow(() -> new CustomException(ErrorCode.APPROVAL_PROCESS_NOT_FOUND));
+
+        boolean isTurn = doc.getFinalStatus() == StepStatus.STEP_STATUS_PENDING
+                && target.getStatus() == StepStatus.STEP_STATUS_PENDING
+                && doc.getSteps().stream()
+                        .noneMatch(s -> s.getStep() < step && s.getStatus() != StepStatus.STEP_STATUS_APPROVED);
+        if (!isTurn) {
+            if (target.getStatus() != incoming) {
+                throw new CustomException(ErrorCode.APPROVAL_PROCESS_INVALID_STATUS);
+            }
+            return false;
+        }
+
+        target.updateStatus(incoming);
+        if (incoming == StepStatus.STEP_STATUS_REJECTED) {
+            doc.setFinalStatus(StepStatus.STEP_STATUS_REJECTED);
+        }
+        return true;
+    }
+
+    private void updateEach(List<ApprovalResultRequest> results) {
+        for (ApprovalResultRequest result : results) {
+            try {
+                updateResult(result.getRequestId(), result.getApproverId(), result.getStep(), result.getStatus());
+            } catch (CustomException e) {
+                log.warn("결재 결과를 반영하지 않습니다: {} requestId={}", e.getErrorCode(), result.getRequestId());
+            }
+        }
+    }
+
+    private static Long rejectedBy(ApprovalDocument doc) {
+        return doc.getSteps().stream()
+                .filter(s -> s.getStatus() == StepStatus.STEP_STATUS_REJECTED)
+                .map(ApprovalDocument.StepInfo::getApproverId)
+                .findFirst()
+                .orElse(null);
     }
 
-    private void validateSteps(Long requesterId, List<ApprovalCreateRequest.StepDto> steps) {
+    private void validateSteps(
+            Long requesterId, List<ApprovalCreateRequest.StepDto> steps, Map<Long, EmployeeClient.EmployeeDto> employees) {
         if (steps.isEmpty()) {
             throw new CustomException(ErrorCode.APPROVAL_REQUEST_INVALID_STEP);
         }
@@ -197,7 +341,11 @@ public class ApprovalRequestService {
             if (step.approverId().equals(requesterId)) {
                 throw new CustomException(ErrorCode.APPROVAL_SELF_APPROVAL_NOT_ALLOWED);
             }
-            Role role = employeeClient.findRole(step.approverId());
+            EmployeeClient.EmployeeDto approver = employees.get(step.approverId());
+            if (approver == null) {
+                throw new CustomException(ErrorCode.EMPLOYEE_NOT_FOUND);
+            }
+            Role role = approver.role();
             if (role != Role.APPROVER && role != Role.ADMIN) {
                 throw new CustomException(ErrorCode.APPROVAL_APPROVER_NOT_ELIGIBLE);
             }
@@ -216,22 +364,61 @@ public class ApprovalRequestService {
         }
     }
 
+    /**
+     * 트랜잭션으로 실행한다. 같은 문서를 동시에 쓰는 트랜잭션끼리는 한쪽이 쓰기 충돌(TransientTransactionError)로
+     * 중단되므로, 그 경우에만 max-attempts 까지 처음부터 다시 실행한다.
+     */
+    private <T> T inTransaction(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (RuntimeException e) {
+                if (attempt >= transactionMaxAttempts || !isTransientTransactionError(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isTransientTransactionError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void sendToProcessing(ApprovalDocument doc) {
-        Optional<Step> nextPending = doc.getSteps().stream()
-                .sorted(Comparator.comparingInt(ApprovalDocument.StepInfo::getStep))
-                .filter(s -> s.getStatus() == StepStatus.STEP_STATUS_PENDING)
-                .findFirst()
-                .map(s -> Step.newBuilder()
-                        .setStep(s.getStep())
-                        .setApproverId(s.getApproverId())
-                        .setStatus(s.getStatus())
-                        .build());
+        processingMessage(doc).ifPresent(outboxRepository::save);
+    }
 
+    private Optional<OutboxMessage> processingMessage(ApprovalDocument doc) {
+        Optional<ApprovalDocument.StepInfo> nextPending = nextPendingStep(doc);
         if (nextPending.isEmpty()) {
-            return;
+            return Optional.empty();
         }
 
-        ApprovalRequest approvalRequestMessage = ApprovalRequest.newBuilder()
+        // 승인자 단위 샤딩: 같은 승인자의 요청은 항상 같은 처리 노드의 큐로 간다
+        String routingKey = ApprovalSharding.requestRoutingKey(nextPending.get().getApproverId(), shardCount);
+        return Optional.of(OutboxMessage.builder()
+                .exchange(ApprovalMessagingConstants.EXCHANGE_NAME)
+                .routingKey(routingKey)
+                .payload(toProcessingMessage(doc).toByteArray())
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    static Optional<ApprovalDocument.StepInfo> nextPendingStep(ApprovalDocument doc) {
+        return doc.getSteps().stream()
+                .sorted(Comparator.comparingInt(ApprovalDocument.StepInfo::getStep))
+                .filter(s -> s.getStatus() == StepStatus.STEP_STATUS_PENDING)
+                .findFirst();
+    }
+
+    static ApprovalRequest toProcessingMessage(ApprovalDocument doc) {
+        return ApprovalRequest.newBuilder()
                 .setRequestId(doc.getRequestId())
                 .setRequesterId(doc.getRequesterId())
                 .setTitle(doc.getTitle())
@@ -240,11 +427,10 @@ public class ApprovalRequestService {
                         .map(s -> Step.newBuilder()
                                 .setStep(s.getStep())
                                 .setApproverId(s.getApproverId())
-                        .setStatus(s.getStatus())
-                        .build())
+                                .setStatus(s.getStatus())
+                                .build())
                         .toList())
                 .build();
-        callProcessingWithRetry(approvalRequestMessage);
     }
 
     private StepStatus mapStatus(ApprovalResultStatus status) {
@@ -267,31 +453,6 @@ public class ApprovalRequestService {
                     "{\"requestId\":%d,\"result\":\"approved\",\"finalResult\":\"approved\"}",
                     doc.getRequestId());
         }
-        notificationClient.send(doc.getRequesterId(), payload);
-    }
-
-    private void callProcessingWithRetry(ApprovalRequest request) {
-        for (int attempt = 1; attempt <= Math.max(1, processingMaxAttempts); attempt++) {
-            try {
-                rabbitTemplate.convertAndSend(
-                        ApprovalMessagingConstants.EXCHANGE_NAME,
-                        ApprovalMessagingConstants.ROUTING_KEY_REQUEST,
-                        request.toByteArray());
-                return;
-            } catch (Exception e) {
-                if (attempt == processingMaxAttempts) {
-                    throw e;
-                }
-                sleep(processingBackoffMillis);
-            }
-        }
-    }
-
-    private void sleep(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
-        }
+        notificationDispatcher.dispatch(doc.getRequesterId(), payload);
     }
 }
@@ -0,0 +1,142 @@
+package erp.approvalrequest.service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Snowflake 노드 id 임대. 만료된(또는 비어 있는) 노드 id 문서를 하나 차지하고 주기적으로 갱신한다.
+ * 임대를 잃었거나 갱신하지 못한 채 만료 시각이 지나면 isHeld() 가 false 가 되어 id 발급을 멈추고,
+ * 비어 있는 노드 id 를 다시 임대할 때까지 간격을 두 배씩(최대 ttl) 늘려 가며 재시도한다.
+ */
+@Slf4j
+public class NodeIdLease implements AutoCloseable {
+
+    static final String COLLECTION = "request_id_node_leases";
+
+    private final MongoOperations mongoOperations;
+    private final long ttlMillis;
+    private final long renewEveryMillis;
+    private final String owner = UUID.randomUUID().toString();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "node-id-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long nodeId;
+    private volatile boolean held;
+    private volatile long heldUntilMillis;
+
+    /** 재임대 대기 간격. renewer 스레드에서만 쓴다 */
+    private long backoffMillis;
+    private long nextAcquireAtMillis;
+
+    public NodeIdLease(MongoOperations mongoOperations, long ttlMillis) {
+        this.mongoOperations = mongoOperations;
+        this.ttlMillis = ttlMillis;
+        this.renewEveryMillis = Math.max(1, ttlMillis / 3);
+        if (!tryAcquire()) {
+            throw new IllegalStateException("no free snowflake node id");
+        }
+        renewer.scheduleWithFixedDelay(this::maintain, renewEveryMillis, renewEveryMillis, TimeUnit.MILLISECONDS);
+        log.info("Snowflake 노드 id {} 를 임대했습니다.", nodeId);
+    }
+
+    /**
+     * 마지막으로 임대한 노드 id.
+     */
+    public long nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 지금 쥐고 있는 노드 id. 임대가 없으면 -1.
+     */
+    public long currentNodeId() {
+        long current = nodeId;
+        return isHeld() ? current : -1;
+    }
+
+    public boolean isHeld() {
+        return held && System.currentTimeMillis() < heldUntilMillis;
+    }
+
+    private boolean tryAcquire() {
+        for (long candidate = 0; candidate <= SnowflakeIdGenerator.MAX_NODE_ID; candidate++) {
+            Instant now = Instant.now();
+            Query query = Query.query(Criteria.where("_id").is(candidate).and("expiresAt").lt(now));
+            Update update = new Update().set("owner", owner).set("expiresAt", now.plusMillis(ttlMillis));
+            try {
+                mongoOperations.upsert(query, update, COLLECTION);
+                heldUntilMillis = now.toEpochMilli() + ttlMillis;
+                nodeId = candidate;
+                held = true;
+                return true;
+            } catch (DuplicateKeyException e) {
+                // 다른 인스턴스가 유효하게 쥐고 있는 노드 id
+            }
+        }
+        return false;
+    }
+
+    private void maintain() {
+        try {
+            if (held) {
+                renew();
+            } else {
+                reacquire();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Snowflake 노드 id {} 임대 갱신 실패: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void renew() {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(nodeId).and("owner").is(owner));
+        Update update = new Update().set("expiresAt", now.plusMillis(ttlMillis));
+        if (mongoOperations.updateFirst(query, update, COLLECTION).getMatchedCount() > 0) {
+            heldUntilMillis = now.toEpochMilli() + ttlMillis;
+            return;
+        }
+        held = false;
+        backoffMillis = renewEveryMillis;
+        nextAcquireAtMillis = 0;
+        log.error("Snowflake 노드 id {} 임대를 잃었습니다. 다시 임대할 때까지 id 발급을 중단합니다.", nodeId);
+        reacquire();
+    }
+
+    private void reacquire() {
+        long now = System.currentTimeMillis();
+        if (now < nextAcquireAtMillis) {
+            return;
+        }
+        if (tryAcquire()) {
+            log.info("Snowflake 노드 id {} 를 다시 임대했습니다.", nodeId);
+            return;
+        }
+        nextAcquireAtMillis = now + backoffMillis;
+        backoffMillis = Math.min(backoffMillis * 2, ttlMillis);
+        log.warn("비어 있는 Snowflake 노드 id 가 없습니다. {}ms 뒤 다시 시도합니다.", nextAcquireAtMillis - now);
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+        if (held) {
+            held = false;
+            mongoOperations.remove(Query.query(Criteria.where("_id").is(nodeId).and("owner").is(owner)), COLLECTION);
+        }
+    }
+}
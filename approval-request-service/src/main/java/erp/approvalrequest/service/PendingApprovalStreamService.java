@@ -0,0 +1,54 @@
+package erp.approvalrequest.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.approvalrequest.repository.ApprovalRepository;
+import erp.common.messaging.ApprovalSharding;
+import erp.shared.proto.approval.StepStatus;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 처리 노드 기동 시 큐 복구용으로, 진행 중인 결재 문서를 processing 메시지 형식으로 내려준다.
+ */
+@Service
+@RequiredArgsConstructor
+public class PendingApprovalStreamService {
+
+    private final ApprovalRepository approvalRepository;
+
+    /**
+     * finalStatus 가 PENDING 인 문서를 커서로 읽어, 다음 승인자가 shards 에 속하는 것만
+     * length-delimited ApprovalRequest 로 기록한다. shards 가 비어 있으면 모든 샤드를 포함한다.
+     *
+     * @return 기록한 건수
+     */
+    public int writePending(int shardCount, Collection<Integer> shards, OutputStream out) throws IOException {
+        int written = 0;
+        try (Stream<ApprovalDocument> docs = approvalRepository.streamByFinalStatus(StepStatus.STEP_STATUS_PENDING)) {
+            Iterator<ApprovalDocument> it = docs.iterator();
+            while (it.hasNext()) {
+                ApprovalDocument doc = it.next();
+                Optional<ApprovalDocument.StepInfo> next = ApprovalRequestService.nextPendingStep(doc);
+                if (next.isEmpty()) {
+                    continue;
+                }
+                int shard = ApprovalSharding.shardOf(next.get().getApproverId(), shardCount);
+                if (shards != null && !shards.isEmpty() && !shards.contains(shard)) {
+                    continue;
+                }
+                ApprovalRequestService.toProcessingMessage(doc).writeDelimitedTo(out);
+                written++;
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
@@ -1,5 +1,9 @@
 package erp.approvalrequest.service;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoOperations;
@@ -12,23 +16,73 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+/**
+ * 결재 요청 id 발급기.
+ * blockSize 가 1 보다 크면 시퀀스 문서를 blockSize 만큼 한 번에 증가시켜 구간을 예약하고(hi/lo),
+ * 예약한 구간의 id 는 Mongo 왕복 없이 로컬에서 나눠준다. 구간은 원자적 증가로 예약하므로 여러 인스턴스 간에도
+ * id 가 겹치지 않는다. 인스턴스가 재시작되면 남은 구간은 버려지므로 id 에 빈 번호가 생길 수 있다.
+ * 대신 인스턴스마다 다른 구간에서 발급하므로 id 순서가 인스턴스 간 생성 순서와 어긋난다.
+ * requestId 순서에 기대는 처리 큐 우선순위와 최신순 목록·keyset 페이지가 흐트러지므로 기본값은 1 이다.
+ * SnowflakeIdGenerator 빈이 있으면(approval.request-id.mode=snowflake) Mongo 를 거치지 않고 그쪽으로 발급한다.
+ */
 @Component
 public class RequestIdGenerator {
 
     private static final String SEQUENCE_ID = "approval_request_id";
 
     private final MongoOperations mongoOperations;
+    private final int blockSize;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+
+    private volatile Block block = Block.EXHAUSTED;
 
-    public RequestIdGenerator(MongoOperations mongoOperations) {
+    public RequestIdGenerator(
+            MongoOperations mongoOperations,
+            @Value("${approval.request-id.block-size}") int blockSize,
+            ObjectProvider<SnowflakeIdGenerator> snowflakeIdGenerator) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("block-size must be positive: " + blockSize);
+        }
         this.mongoOperations = mongoOperations;
+        this.blockSize = blockSize;
+        this.snowflakeIdGenerator = snowflakeIdGenerator.getIfAvailable();
     }
 
     public long nextId() {
+        if (snowflakeIdGenerator != null) {
+            return snowflakeIdGenerator.nextId();
+        }
+        if (blockSize == 1) {
+            return reserve(1);
+        }
+        while (true) {
+            Block current = block;
+            long id = current.next().getAndIncrement();
+            if (id <= current.last()) {
+                return id;
+            }
+            synchronized (this) {
+                if (block == current) {
+                    long last = reserve(blockSize);
+                    block = new Block(new AtomicLong(last - blockSize + 1), last);
+                }
+            }
+        }
+    }
+
+    /**
+     * 시퀀스를 count 만큼 원자적으로 증가시키고, 예약된 구간의 마지막 값을 반환한다.
+     */
+    private long reserve(int count) {
         Query query = Query.query(Criteria.where("_id").is(SEQUENCE_ID));
-        Update update = new Update().inc("value", 1);
+        Update update = new Update().inc("value", count);
         FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true).upsert(true);
         Sequence sequence = mongoOperations.findAndModify(query, update, options, Sequence.class);
-        return sequence != null ? sequence.getValue() : 1L;
+        return sequence != null ? sequence.getValue() : count;
+    }
+
+    private record Block(AtomicLong next, long last) {
+        static final Block EXHAUSTED = new Block(new AtomicLong(1), 0);
     }
 
     @Getter
@@ -65,6 +65,7 @@ public abstract class ApprovalRequestIntegrationTestSupport {
                 .title("제목")
                 .content("내용")
                 .steps(steps)
+                .participantIds(ApprovalDocument.participantsOf(requesterId, steps))
                 .finalStatus(finalStatus)
                 .createdAt(Instant.now())
                 .updatedAt(Instant.now())
@@ -0,0 +1,144 @@
+package erp.approvalrequest.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withResourceNotFound;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
+import erp.common.security.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("EmployeeClient 캐시 테스트")
+class EmployeeClientTest {
+
+    private static final String EMPLOYEE_JSON = """
+            {"id":1,"email":"a@example.com","name":"승인자","department":"개발팀","position":"팀장","role":"APPROVER"}
+            """;
+
+    private MockRestServiceServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeClient employeeClient;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        meterRegistry = new SimpleMeterRegistry();
+        employeeClient = new EmployeeClient(builder, meterRegistry);
+        ReflectionTestUtils.setField(employeeClient, "baseUrl", "http://employee");
+        ReflectionTestUtils.setField(employeeClient, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(employeeClient, "cacheTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(employeeClient, "cacheNegativeTtlMillis", 60_000L);
+        employeeClient.init();
+    }
+
+    @Test
+    @DisplayName("같은 사원을 다시 조회하면 캐시에서 반환한다")
+    void cacheHit() {
+        // given
+        server.expect(once(), requestTo("http://employee/internal/employees/1"))
+                .andRespond(withSuccess(EMPLOYEE_JSON, MediaType.APPLICATION_JSON));
+
+        // when
+        employeeClient.findById(1L);
+        Role role = employeeClient.findRole(1L);
+
+        // then
+        assertThat(role).isEqualTo(Role.APPROVER);
+        server.verify();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", EmployeeClient.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("404 는 negative entry 로 캐시해 다시 호출하지 않는다")
+    void negativeCacheOnNotFound() {
+        // given
+        server.expect(once(), requestTo("http://employee/internal/employees/2"))
+                .andRespond(withResourceNotFound());
+
+        // when & then
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> employeeClient.findById(2L))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.EMPLOYEE_NOT_FOUND);
+        }
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("404 가 아닌 실패는 캐시하지 않는다")
+    void noCacheOnServerError() {
+        // given
+        server.expect(times(2), requestTo("http://employee/internal/employees/3"))
+                .andRespond(withServerError());
+
+        // when & then
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> employeeClient.findById(3L))
+                    .isInstanceOf(CustomException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", ErrorCode.EMPLOYEE_NOT_FOUND);
+        }
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("일괄 조회는 캐시에 없는 id 만 한 번에 요청하고, 없는 사원은 결과에서 뺀다")
+    void bulkFetchOnlyMisses() {
+        // given
+        server.expect(once(), requestTo("http://employee/internal/employees/1"))
+                .andRespond(withSuccess(EMPLOYEE_JSON, MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo("http://employee/internal/employees?ids=5"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        employeeClient.findById(1L);
+
+        // when
+        Map<Long, EmployeeClient.EmployeeDto> employees = employeeClient.findAllByIds(List.of(1L, 5L));
+
+        // then
+        assertThat(employees).containsOnlyKeys(1L);
+        assertThat(employeeClient.findAllByIds(List.of(1L, 5L))).containsOnlyKeys(1L);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 id 가 MAX_BULK_IDS 를 넘으면 나눠서 요청한다")
+    void bulkFetchInChunks() {
+        // given
+        List<Long> ids = LongStream.rangeClosed(1, 150).boxed().toList();
+        List<String> requestedIds = new ArrayList<>();
+        server.expect(times(2), request -> {
+            String query = request.getURI().getQuery();
+            List<String> chunk = List.of(query.substring("ids=".length()).split(","));
+            assertThat(chunk).hasSizeLessThanOrEqualTo(EmployeeClient.MAX_BULK_IDS);
+            requestedIds.addAll(chunk);
+        }).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // when
+        Map<Long, EmployeeClient.EmployeeDto> employees = employeeClient.findAllByIds(ids);
+
+        // then
+        assertThat(employees).isEmpty();
+        assertThat(requestedIds).containsExactlyInAnyOrderElementsOf(ids.stream().map(String::valueOf).toList());
+        server.verify();
+    }
+}
@@ -0,0 +1,121 @@
+package erp.approvalrequest.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("NotificationDispatcher 테스트")
+class NotificationDispatcherTest {
+
+    private NotificationSender notificationSender;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        notificationSender = mock(NotificationSender.class);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationDispatcher(notificationSender, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "capacity", 2);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffMillis", 10L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMillis", 15L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("전송에 실패하면 백오프 후 재시도해 전달한다")
+    void retryThenDeliver() {
+        // given
+        doThrow(new ResourceAccessException("down"))
+                .doThrow(new ResourceAccessException("down"))
+                .doNothing()
+                .when(notificationSender).send(1L, "payload");
+
+        // when
+        boolean accepted = dispatcher.dispatch(1L, "payload");
+
+        // then
+        assertThat(accepted).isTrue();
+        await().atMost(Duration.ofSeconds(5)).until(() -> count("delivered") == 1);
+        verify(notificationSender, times(3)).send(1L, "payload");
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(dispatcher.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("재시도를 모두 실패하면 포기하고 failed 로 센다")
+    void giveUpAfterMaxAttempts() {
+        // given
+        doThrow(new ResourceAccessException("down")).when(notificationSender).send(anyLong(), anyString());
+
+        // when
+        dispatcher.dispatch(1L, "payload");
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> count("failed") == 1);
+        verify(notificationSender, times(3)).send(1L, "payload");
+        assertThat(dispatcher.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("끝나지 않은 알림이 capacity 만큼 있으면 새 알림은 버리고 dropped 로 센다")
+    void dropWhenFull() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(notificationSender).send(anyLong(), anyString());
+        dispatcher.dispatch(1L, "a");
+        dispatcher.dispatch(2L, "b");
+
+        // when
+        boolean accepted = dispatcher.dispatch(3L, "c");
+
+        // then
+        assertThat(accepted).isFalse();
+        assertThat(count("dropped")).isEqualTo(1);
+        assertThat(dispatcher.pending()).isEqualTo(2);
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> count("delivered") == 2);
+        doNothing().when(notificationSender).send(anyLong(), anyString());
+        assertThat(dispatcher.dispatch(3L, "c")).isTrue();
+    }
+
+    @Test
+    @DisplayName("백오프는 두 배씩 늘고 최대값을 넘지 않는다")
+    void exponentialBackoff() {
+        assertThat(dispatcher.backoffFor(1)).isEqualTo(10L);
+        assertThat(dispatcher.backoffFor(2)).isEqualTo(15L);
+        assertThat(dispatcher.backoffFor(40)).isEqualTo(15L);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(NotificationDispatcher.METRIC_NAME).tag("result", result).counter().count();
+    }
+}
@@ -4,10 +4,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.hasItem;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
@@ -22,12 +25,15 @@ import org.springframework.context.annotation.Primary;
 import org.mockito.Mockito;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
 import erp.approvalrequest.dto.ApprovalCreateRequest;
+import erp.approvalrequest.dto.ApprovalPageResponse;
 import erp.approvalrequest.dto.ApprovalResponse;
+import erp.approvalrequest.dto.ApprovalSummaryResponse;
 import erp.approvalrequest.service.ApprovalRequestService;
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
@@ -149,5 +155,49 @@ class ApprovalControllerTest extends ApprovalRequestIntegrationTestSupport {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$[0].requestId").value(200));
         }
+
+        @Test
+        void limit을_주면_요약_페이지로_응답한다() throws Exception {
+            // given
+            ApprovalSummaryResponse item = new ApprovalSummaryResponse(
+                    300L,
+                    1L,
+                    "제목",
+                    List.of(new ApprovalResponse.StepResponse(1, 10L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING,
+                    Instant.now(),
+                    Instant.now());
+            given(approvalRequestService.listPageForCurrentUser(20, 500L, StepStatus.STEP_STATUS_PENDING))
+                    .willReturn(new ApprovalPageResponse(List.of(item), 300L));
+
+            // when & then: 반환값 검증
+            mockMvc.perform(get("/approvals")
+                            .param("limit", "20")
+                            .param("after", "500")
+                            .param("finalStatus", "STEP_STATUS_PENDING")
+                            .header("X-User-Id", "1")
+                            .header("X-User-Roles", "EMPLOYEE"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].requestId").value(300))
+                    .andExpect(jsonPath("$.items[0].content").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor").value(300));
+        }
+    }
+
+    @Nested
+    class Export {
+
+        @Test
+        void 내보내기_스트림은_설정한_비동기_제한_시간을_쓴다() throws Exception {
+            // when
+            MvcResult result = mockMvc.perform(get("/approvals/export")
+                            .header("X-User-Id", "1")
+                            .header("X-User-Roles", "ADMIN"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // then: 컨테이너 기본값(30초)이 아니라 application.yml 의 값으로 전송 시간이 제한된다
+            assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+        }
     }
 }
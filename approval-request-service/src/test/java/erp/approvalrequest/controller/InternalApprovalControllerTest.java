@@ -0,0 +1,36 @@
+package erp.approvalrequest.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
+
+@AutoConfigureMockMvc
+@DisplayName("InternalApprovalController 테스트")
+class InternalApprovalControllerTest extends ApprovalRequestIntegrationTestSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("대기 결재 스트림은 컨테이너 기본값이 아니라 설정한 비동기 제한 시간을 쓴다")
+    void pendingStreamUsesConfiguredTimeout() throws Exception {
+        // when
+        MvcResult result = mockMvc.perform(get("/internal/approvals/pending").param("shardCount", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+    }
+}
@@ -47,6 +47,7 @@ import erp.approvalrequest.repository.ApprovalRepository;
 import erp.common.exception.ErrorResponse;
 import erp.common.security.Role;
 import erp.common.messaging.ApprovalMessagingConstants;
+import erp.common.messaging.ApprovalSharding;
 import erp.employee.EmployeeServiceApplication;
 import erp.employee.dto.EmployeeRequest;
 import erp.employee.dto.EmployeeResponse;
@@ -141,6 +142,10 @@ class ApprovalFlowE2ETest {
         Map<String, Object> notificationProps = new HashMap<>();
         notificationProps.put("server.port", notificationPort);
         notificationProps.put("security.jwt.secret", TestJwtFactory.SECRET);
+        notificationProps.put("spring.rabbitmq.host", rabbitHost);
+        notificationProps.put("spring.rabbitmq.port", rabbitPort);
+        notificationProps.put("spring.rabbitmq.username", rabbitUsername);
+        notificationProps.put("spring.rabbitmq.password", rabbitPassword);
         notificationProps.put("spring.autoconfigure.exclude", "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration");
 
         notificationContext = new SpringApplicationBuilder(NotificationServiceApplication.class)
@@ -176,8 +181,7 @@ class ApprovalFlowE2ETest {
         approvalProps.put("employee.base-url", "http://localhost:" + employeePort);
         approvalProps.put("notification.base-url", "http://localhost:" + notificationPort);
         approvalProps.put("notification.path", "/internal/notifications");
-        approvalProps.put("processing.retry.max-attempts", 2);
-        approvalProps.put("processing.retry.backoff-millis", 50);
+        approvalProps.put("approval.outbox.relay.interval-millis", 50);
         approvalProps.put("notification.retry.max-attempts", 2);
         approvalProps.put("notification.retry.backoff-millis", 50);
         approvalProps.put("security.jwt.secret", TestJwtFactory.SECRET);
@@ -203,6 +207,11 @@ class ApprovalFlowE2ETest {
         clearQueue(approver2Id);
         amqpAdmin.purgeQueue(ApprovalMessagingConstants.REQUEST_QUEUE_NAME, true);
         amqpAdmin.purgeQueue(ApprovalMessagingConstants.RESULT_QUEUE_NAME, true);
+        int resultPartitions = approvalRequestContext.getEnvironment()
+                .getRequiredProperty("approval.sharding.result-partitions", Integer.class);
+        for (int partition = 0; resultPartitions > 1 && partition < resultPartitions; partition++) {
+            amqpAdmin.purgeQueue(ApprovalSharding.resultPartitionQueueName(partition), true);
+        }
     }
 
     @AfterAll
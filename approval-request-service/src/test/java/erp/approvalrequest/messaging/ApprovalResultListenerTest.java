@@ -6,12 +6,15 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
 
 import erp.approvalrequest.service.ApprovalRequestService;
 import erp.common.exception.CustomException;
@@ -72,4 +75,21 @@ class ApprovalResultListenerTest {
                 .doesNotThrowAnyException();
         verify(approvalRequestService).updateResult(1L, 2L, 1, ApprovalResultStatus.APPROVAL_RESULT_REJECTED);
     }
+
+    @Test
+    void 묶음으로_받으면_해석한_결과만_모아_updateResults를_한_번_호출한다() {
+        // given
+        ApprovalResultRequest request = ApprovalResultRequest.newBuilder()
+                .setRequestId(1L)
+                .setApproverId(2L)
+                .setStep(1)
+                .setStatus(ApprovalResultStatus.APPROVAL_RESULT_APPROVED)
+                .build();
+
+        // when
+        listener.handleResults(List.of(new Message(request.toByteArray()), new Message("invalid".getBytes())));
+
+        // then
+        verify(approvalRequestService).updateResults(List.of(request));
+    }
 }
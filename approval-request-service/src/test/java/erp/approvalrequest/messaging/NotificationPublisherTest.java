@@ -0,0 +1,62 @@
+package erp.approvalrequest.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+
+import erp.common.messaging.ConfirmingPublisher;
+import erp.common.messaging.NotificationMessagingConstants;
+import erp.shared.proto.notification.Notification;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPublisherTest {
+
+    @Mock
+    ConfirmingPublisher confirmingPublisher;
+
+    @InjectMocks
+    NotificationPublisher publisher;
+
+    @Test
+    void 알림을_protobuf로_notification_exchange에_발행한다() throws Exception {
+        // given
+        given(confirmingPublisher.publish(any(), any(), any())).willReturn(CompletableFuture.completedFuture(null));
+
+        // when
+        publisher.send(7L, "{\"requestId\":1}");
+
+        // then
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(confirmingPublisher).publish(
+                eq(NotificationMessagingConstants.EXCHANGE_NAME),
+                eq(NotificationMessagingConstants.ROUTING_KEY),
+                captor.capture());
+        Notification sent = Notification.parseFrom(captor.getValue());
+        assertThat(sent.getEmployeeId()).isEqualTo(7L);
+        assertThat(sent.getPayload()).isEqualTo("{\"requestId\":1}");
+    }
+
+    @Test
+    void 브로커가_발행을_거부하면_예외를_던져_재시도하게_한다() {
+        // given
+        given(confirmingPublisher.publish(any(), any(), any()))
+                .willReturn(CompletableFuture.failedFuture(new AmqpException("nack")));
+
+        // when & then
+        assertThatThrownBy(() -> publisher.send(7L, "{}"))
+                .hasCauseInstanceOf(AmqpException.class);
+    }
+}
@@ -0,0 +1,173 @@
+package erp.approvalrequest.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
+import erp.approvalrequest.domain.OutboxMessage;
+import erp.approvalrequest.repository.OutboxRepository;
+import erp.common.messaging.ConfirmingPublisher;
+import erp.common.messaging.ConfirmingPublisher.Outbound;
+
+class OutboxRelayTest extends ApprovalRequestIntegrationTestSupport {
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    private ConfirmingPublisher confirmingPublisher;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        confirmingPublisher = mock(ConfirmingPublisher.class);
+        given(confirmingPublisher.publishEach(anyList())).willAnswer(invocation -> confirmAll(invocation.getArgument(0)));
+
+        outboxRelay = new OutboxRelay(outboxRepository, confirmingPublisher, mongoTemplate);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "leaseMillis", 10_000L);
+        ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void 기록_순서대로_묶어_발행하고_확인되면_지운다() {
+        // given
+        save("approval.request", new byte[] {1});
+        save("approval.request.shard.1", new byte[] {2});
+        save("approval.request", new byte[] {3});
+
+        // when
+        outboxRelay.relay();
+
+        // then: 발행 순서와 묶음 단위 검증
+        ArgumentCaptor<List<Outbound>> captor = ArgumentCaptor.forClass(List.class);
+        verify(confirmingPublisher, times(2)).publishEach(captor.capture());
+        assertThat(captor.getAllValues().get(0))
+                .extracting(Outbound::exchange, Outbound::routingKey, Outbound::body)
+                .containsExactly(
+                        tuple("approval.exchange", "approval.request", new byte[] {1}),
+                        tuple("approval.exchange", "approval.request.shard.1", new byte[] {2}));
+        assertThat(captor.getAllValues().get(1))
+                .extracting(Outbound::routingKey, Outbound::body)
+                .containsExactly(tuple("approval.request", new byte[] {3}));
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void 브로커_확인에_실패하면_지우지_않고_다음_주기에_다시_발행한다() {
+        // given
+        save("approval.request", new byte[] {1});
+        given(confirmingPublisher.publishEach(anyList()))
+                .willReturn(List.of(CompletableFuture.failedFuture(new AmqpTimeoutException("confirm timeout"))))
+                .willAnswer(invocation -> confirmAll(invocation.getArgument(0)));
+
+        // when
+        outboxRelay.relay();
+
+        // then: 시도 횟수를 올려 아웃박스 유지
+        assertThat(outboxRepository.findAll()).singleElement()
+                .satisfies(message -> assertThat(message.getAttempts()).isEqualTo(1))
+                .satisfies(message -> assertThat(message.getLastError()).isEqualTo("confirm timeout"));
+
+        // when: 브로커가 회복된 뒤 다음 주기
+        outboxRelay.relay();
+
+        // then: 재발행 후 삭제
+        verify(confirmingPublisher, times(2)).publishEach(anyList());
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void 다른_인스턴스가_임대를_쥐고_있으면_발행하지_않고_만료되면_이어받는다() {
+        // given
+        save("approval.request", new byte[] {1});
+        mongoTemplate.insert(new Document("_id", "relay")
+                .append("owner", "other-instance")
+                .append("expiresAt", Instant.now().plusSeconds(60)), OutboxRelay.LEASE_COLLECTION);
+
+        // when
+        outboxRelay.relay();
+
+        // then: 발행 없이 아웃박스 유지
+        verify(confirmingPublisher, never()).publishEach(anyList());
+        assertThat(outboxRepository.count()).isEqualTo(1);
+
+        // when: 다른 인스턴스의 임대가 만료된 뒤
+        mongoTemplate.getCollection(OutboxRelay.LEASE_COLLECTION).updateOne(
+                new Document("_id", "relay"),
+                new Document("$set", new Document("expiresAt", Instant.now().minusSeconds(1))));
+        outboxRelay.relay();
+
+        // then: 이어받아 발행
+        verify(confirmingPublisher, times(1)).publishEach(anyList());
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void 확인된_메시지만_지우고_계속_실패하는_메시지는_데드레터로_옮긴다() {
+        // given: 첫 메시지만 매번 반송된다
+        save("approval.request.shard.9", new byte[] {1});
+        save("approval.request", new byte[] {2});
+        save("approval.request", new byte[] {3});
+        given(confirmingPublisher.publishEach(anyList())).willAnswer(invocation -> {
+            List<Outbound> messages = invocation.getArgument(0);
+            return messages.stream()
+                    .map(message -> message.routingKey().endsWith("shard.9")
+                            ? CompletableFuture.<Void>failedFuture(new AmqpException("returned"))
+                            : CompletableFuture.<Void>completedFuture(null))
+                    .toList();
+        });
+
+        // when
+        outboxRelay.relay();
+
+        // then: 같은 묶음의 확인된 메시지는 지우고, 실패한 메시지는 시도 횟수를 올려 남긴다
+        assertThat(outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, 10)))
+                .extracting(OutboxMessage::getRoutingKey, OutboxMessage::getAttempts)
+                .containsExactly(tuple("approval.request.shard.9", 1), tuple("approval.request", 0));
+
+        // when: 다음 주기에도 실패해 max-attempts 에 이른다
+        outboxRelay.relay();
+
+        // then: 실패한 메시지는 데드레터로 옮기고 뒤 메시지는 막히지 않는다
+        assertThat(outboxRepository.count()).isZero();
+        List<Document> dead = mongoTemplate.findAll(Document.class, OutboxRelay.DEAD_LETTER_COLLECTION);
+        assertThat(dead).singleElement().satisfies(document -> {
+            assertThat(document.getString("routingKey")).isEqualTo("approval.request.shard.9");
+            assertThat(document.getInteger("attempts")).isEqualTo(2);
+        });
+    }
+
+    private static List<CompletableFuture<Void>> confirmAll(List<Outbound> messages) {
+        return messages.stream().map(message -> CompletableFuture.<Void>completedFuture(null)).toList();
+    }
+
+    private void save(String routingKey, byte[] payload) {
+        outboxRepository.save(OutboxMessage.builder()
+                .exchange("approval.exchange")
+                .routingKey(routingKey)
+                .payload(payload)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
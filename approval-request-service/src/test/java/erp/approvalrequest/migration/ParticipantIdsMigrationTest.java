@@ -0,0 +1,81 @@
+package erp.approvalrequest.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.shared.proto.approval.StepStatus;
+
+class ParticipantIdsMigrationTest extends ApprovalRequestIntegrationTestSupport {
+
+    @Autowired
+    private ParticipantIdsMigration participantIdsMigration;
+
+    @Test
+    void participantIds_가_없는_문서만_요청자와_결재자로_채운다() {
+        // given
+        ApprovalDocument legacy = saveDocument(1L, List.of(
+                step(1, 10L, StepStatus.STEP_STATUS_APPROVED),
+                step(2, 20L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+        ApprovalDocument migrated = saveDocument(2L, List.of(step(1, 30L, StepStatus.STEP_STATUS_PENDING)),
+                StepStatus.STEP_STATUS_PENDING);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(legacy.getId())),
+                new Update().unset("participantIds"), ApprovalDocument.class);
+
+        // when
+        long count = participantIdsMigration.migrate();
+
+        // then: 반환값 검증
+        assertThat(count).isEqualTo(1);
+        assertThat(approvalRepository.findByRequestId(legacy.getRequestId()).orElseThrow().getParticipantIds())
+                .containsExactly(1L, 10L, 20L);
+        assertThat(approvalRepository.findByRequestId(migrated.getRequestId()).orElseThrow().getParticipantIds())
+                .containsExactly(2L, 30L);
+        assertThat(participantIdsMigration.migrate()).isZero();
+    }
+
+    @Test
+    void 채운_뒤에는_참여자_조회에_포함된다() {
+        // given
+        ApprovalDocument legacy = saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)),
+                StepStatus.STEP_STATUS_PENDING);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(legacy.getId())),
+                new Update().unset("participantIds"), ApprovalDocument.class);
+
+        // when
+        participantIdsMigration.migrate();
+
+        // then: 반환값 검증
+        assertThat(approvalRepository.findByParticipantIdsOrderByRequestIdDesc(10L))
+                .extracting(ApprovalDocument::getRequestId)
+                .containsExactly(legacy.getRequestId());
+    }
+
+    @Test
+    void 기동_시_참여자_인덱스를_만들고_기존_문서를_채운다() {
+        // given: 테스트마다 DB 를 지워 인덱스도 없다
+        ApprovalDocument legacy = saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)),
+                StepStatus.STEP_STATUS_PENDING);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(legacy.getId())),
+                new Update().unset("participantIds"), ApprovalDocument.class);
+
+        // when
+        participantIdsMigration.afterSingletonsInstantiated();
+
+        // then: 인덱스와 문서 검증
+        assertThat(mongoTemplate.indexOps(ApprovalDocument.class).getIndexInfo())
+                .extracting(IndexInfo::getName)
+                .contains(ParticipantIdsMigration.INDEX_NAME);
+        assertThat(approvalRepository.findByRequestId(legacy.getRequestId()).orElseThrow().getParticipantIds())
+                .containsExactly(1L, 10L);
+    }
+}
@@ -0,0 +1,121 @@
+package erp.approvalrequest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.common.exception.CustomException;
+import erp.common.exception.ErrorCode;
+import erp.common.security.AuthUtil;
+import erp.common.security.Role;
+import erp.shared.proto.approval.ApprovalRecord;
+import erp.shared.proto.approval.StepStatus;
+
+@Import(ApprovalExportServiceTest.MockConfig.class)
+class ApprovalExportServiceTest extends ApprovalRequestIntegrationTestSupport {
+
+    @Autowired
+    private ApprovalExportService approvalExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @TestConfiguration
+    static class MockConfig {
+
+        @Bean
+        @Primary
+        AuthUtil testAuthUtil() {
+            return Mockito.mock(AuthUtil.class);
+        }
+    }
+
+    @AfterEach
+    void resetMocks() {
+        Mockito.reset(authUtil);
+    }
+
+    @Test
+    void NDJSON으로_한_줄에_한_건씩_내보낸다() throws Exception {
+        // given
+        ApprovalDocument first = saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+        ApprovalDocument second = saveDocument(2L, List.of(step(1, 20L, StepStatus.STEP_STATUS_APPROVED)), StepStatus.STEP_STATUS_APPROVED);
+        given(authUtil.hasRole(Role.ADMIN)).willReturn(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        long written = approvalExportService.export(ApprovalExportService.Format.NDJSON, null, null).writeTo(out);
+
+        // then: 반환값 검증
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode line = objectMapper.readTree(lines[0]);
+        assertThat(line.get("requestId").asLong()).isEqualTo(first.getRequestId());
+        assertThat(line.get("content").asText()).isEqualTo("내용");
+        assertThat(objectMapper.readTree(lines[1]).get("requestId").asLong()).isEqualTo(second.getRequestId());
+    }
+
+    @Test
+    void 생성_시각_범위로_걸러_length_delimited_protobuf로_내보낸다() throws Exception {
+        // given
+        saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+        // Mongo 는 밀리초 단위로 저장하므로 경계가 겹치지 않게 간격을 둔다
+        Thread.sleep(5);
+        Instant from = Instant.now();
+        Thread.sleep(5);
+        ApprovalDocument inRange = saveDocument(2L, List.of(step(1, 20L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+        given(authUtil.hasRole(Role.ADMIN)).willReturn(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        approvalExportService.export(ApprovalExportService.Format.PROTOBUF, from, null).writeTo(out);
+
+        // then: 반환값 검증
+        List<ApprovalRecord> records = new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        ApprovalRecord record;
+        while ((record = ApprovalRecord.parseDelimitedFrom(in)) != null) {
+            records.add(record);
+        }
+        assertThat(records).extracting(ApprovalRecord::getRequestId).containsExactly(inRange.getRequestId());
+        assertThat(records.getFirst().getStepsList()).hasSize(1);
+        assertThat(records.getFirst().getFinalStatus()).isEqualTo(StepStatus.STEP_STATUS_PENDING);
+    }
+
+    @Test
+    void ADMIN이_아니면_FORBIDDEN을_던진다() {
+        // given
+        given(authUtil.hasRole(Role.ADMIN)).willReturn(false);
+
+        // when & then: 예외 검증
+        assertThatThrownBy(() -> approvalExportService.export(ApprovalExportService.Format.NDJSON, null, null))
+                .isInstanceOf(CustomException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.FORBIDDEN);
+    }
+}
@@ -6,50 +6,58 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
-import static org.mockito.Mockito.doThrow;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
-import org.springframework.test.context.TestPropertySource;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
 import erp.approvalrequest.client.EmployeeClient;
-import erp.approvalrequest.client.NotificationClient;
+import erp.approvalrequest.client.NotificationDispatcher;
 import erp.approvalrequest.domain.ApprovalDocument;
+import erp.approvalrequest.domain.OutboxMessage;
 import erp.approvalrequest.dto.ApprovalCreateRequest;
+import erp.approvalrequest.dto.ApprovalPageResponse;
 import erp.approvalrequest.dto.ApprovalResponse;
+import erp.approvalrequest.dto.ApprovalSummaryResponse;
 import erp.approvalrequest.repository.ApprovalRepository;
+import erp.approvalrequest.repository.OutboxRepository;
 import erp.common.exception.CustomException;
 import erp.common.exception.ErrorCode;
 import erp.common.security.AuthUtil;
 import erp.common.security.Role;
 import erp.common.messaging.ApprovalMessagingConstants;
+import erp.common.messaging.ApprovalSharding;
 import erp.shared.proto.approval.ApprovalRequest;
+import erp.shared.proto.approval.ApprovalResultRequest;
 import erp.shared.proto.approval.ApprovalResultStatus;
 import erp.shared.proto.approval.StepStatus;
 
-@TestPropertySource(properties = {
-        "processing.retry.max-attempts=2",
-        "processing.retry.backoff-millis=10"
-})
 @Import(ApprovalRequestServiceTest.MockConfig.class)
 class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
 
@@ -60,20 +68,20 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
     private ApprovalRepository approvalRepository;
 
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private OutboxRepository outboxRepository;
 
     @Autowired
     private EmployeeClient employeeClient;
 
     @Autowired
-    private NotificationClient notificationClient;
+    private NotificationDispatcher notificationDispatcher;
 
     @Autowired
     private AuthUtil authUtil;
 
     @AfterEach
     void tearDownMocks() {
-        reset(rabbitTemplate, employeeClient, notificationClient, authUtil);
+        reset(employeeClient, notificationDispatcher, authUtil);
     }
 
     @TestConfiguration
@@ -87,8 +95,8 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
 
         @Bean
         @Primary
-        NotificationClient testNotificationClient() {
-            return Mockito.mock(NotificationClient.class);
+        NotificationDispatcher testNotificationDispatcher() {
+            return Mockito.mock(NotificationDispatcher.class);
         }
 
         @Bean
@@ -109,10 +117,7 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
                             new ApprovalCreateRequest.StepDto(1, 10L),
                             new ApprovalCreateRequest.StepDto(2, 20L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(10L)).willReturn(Role.APPROVER);
-            given(employeeClient.findRole(20L)).willReturn(Role.ADMIN);
+            givenEmployees(requester(), employee(10L, Role.APPROVER), employee(20L, Role.ADMIN));
 
             // when
             ApprovalResponse response = approvalRequestService.create(request);
@@ -132,30 +137,45 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             assertThat(saved.getCreatedAt()).isNotNull();
             assertThat(saved.getUpdatedAt()).isNotNull();
 
-            // then: RabbitMQ 발행 검증
-            ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
-            verify(rabbitTemplate, times(1)).convertAndSend(
-                    eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                    eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST),
-                    captor.capture());
-            ApprovalRequest sent;
-            try {
-                sent = ApprovalRequest.parseFrom(captor.getValue());
-            } catch (InvalidProtocolBufferException e) {
-                throw new RuntimeException(e);
-            }
+            // then: 아웃박스 기록 검증
+            List<OutboxMessage> outbox = outbox();
+            assertThat(outbox).hasSize(1);
+            assertThat(outbox.getFirst().getExchange()).isEqualTo(ApprovalMessagingConstants.EXCHANGE_NAME);
+            assertThat(outbox.getFirst().getRoutingKey()).isEqualTo(ApprovalMessagingConstants.ROUTING_KEY_REQUEST);
+            ApprovalRequest sent = parse(outbox.getFirst());
             assertThat(sent.getRequestId()).isEqualTo(saved.getRequestId());
             assertThat(sent.getStepsList()).hasSize(2);
             assertThat(sent.getSteps(0).getStatus()).isEqualTo(StepStatus.STEP_STATUS_PENDING);
         }
 
+        @Test
+        void 샤딩을_켜면_첫_승인자의_샤드_라우팅_키로_전송한다() {
+            // given
+            Object target = AopTestUtils.getTargetObject(approvalRequestService);
+            ReflectionTestUtils.setField(target, "shardCount", 4);
+            ApprovalCreateRequest request = new ApprovalCreateRequest(
+                    "연차 신청", "이틀 연차", List.of(new ApprovalCreateRequest.StepDto(1, 10L)));
+            given(authUtil.currentUserId()).willReturn(1L);
+            givenEmployees(requester(), employee(10L, Role.APPROVER));
+
+            try {
+                // when
+                approvalRequestService.create(request);
+
+                // then: 아웃박스 기록 검증
+                assertThat(outbox()).extracting(OutboxMessage::getRoutingKey)
+                        .containsExactly(ApprovalSharding.requestRoutingKey(10L, 4));
+            } finally {
+                ReflectionTestUtils.setField(target, "shardCount", 1);
+            }
+        }
+
         @Test
         void 스텝이_비어있으면_APPROVAL_REQUEST_INVALID_STEP을_던진다() {
             // given
             ApprovalCreateRequest request = new ApprovalCreateRequest("제목", "내용", List.of());
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
+            givenEmployees(requester());
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
@@ -171,9 +191,7 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
                     "제목", "내용",
                     List.of(new ApprovalCreateRequest.StepDto(1, 10L), new ApprovalCreateRequest.StepDto(1, 11L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(any())).willReturn(Role.APPROVER);
+            givenEmployees(requester(), employee(10L, Role.APPROVER), employee(11L, Role.APPROVER));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
@@ -189,9 +207,7 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
                     "제목", "내용",
                     List.of(new ApprovalCreateRequest.StepDto(2, 10L), new ApprovalCreateRequest.StepDto(1, 11L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(any())).willReturn(Role.APPROVER);
+            givenEmployees(requester(), employee(10L, Role.APPROVER), employee(11L, Role.APPROVER));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
@@ -207,9 +223,7 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
                     "제목", "내용",
                     List.of(new ApprovalCreateRequest.StepDto(1, 10L), new ApprovalCreateRequest.StepDto(3, 11L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(any())).willReturn(Role.APPROVER);
+            givenEmployees(requester(), employee(10L, Role.APPROVER), employee(11L, Role.APPROVER));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
@@ -224,8 +238,7 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             ApprovalCreateRequest request = new ApprovalCreateRequest(
                     "제목", "내용", List.of(new ApprovalCreateRequest.StepDto(1, 1L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
+            givenEmployees(requester());
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
@@ -240,9 +253,7 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             ApprovalCreateRequest request = new ApprovalCreateRequest(
                     "제목", "내용", List.of(new ApprovalCreateRequest.StepDto(1, 10L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(10L)).willReturn(Role.EMPLOYEE);
+            givenEmployees(requester(), employee(10L, Role.EMPLOYEE));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
@@ -250,6 +261,22 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
                     .extracting("errorCode")
                     .isEqualTo(ErrorCode.APPROVAL_APPROVER_NOT_ELIGIBLE);
         }
+
+        @Test
+        void 존재하지_않는_승인자가_있으면_EMPLOYEE_NOT_FOUND를_던진다() {
+            // given
+            ApprovalCreateRequest request = new ApprovalCreateRequest(
+                    "제목", "내용", List.of(new ApprovalCreateRequest.StepDto(1, 10L)));
+            given(authUtil.currentUserId()).willReturn(1L);
+            givenEmployees(requester());
+
+            // when & then: 예외 검증
+            assertThatThrownBy(() -> approvalRequestService.create(request))
+                    .isInstanceOf(CustomException.class)
+                    .extracting("errorCode")
+                    .isEqualTo(ErrorCode.EMPLOYEE_NOT_FOUND);
+            verify(employeeClient, times(1)).findAllByIds(any());
+        }
     }
 
     @Nested
@@ -289,6 +316,59 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
         }
     }
 
+    @Nested
+    class ListPageForCurrentUser {
+
+        @Test
+        void requestId_내림차순으로_after_이전_페이지를_이어서_조회한다() {
+            // given
+            long first = saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING).getRequestId();
+            long second = saveDocument(2L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING).getRequestId();
+            long third = saveDocument(3L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING).getRequestId();
+            given(authUtil.currentUserId()).willReturn(99L);
+            given(authUtil.hasRole(Role.ADMIN)).willReturn(true);
+
+            // when
+            ApprovalPageResponse firstPage = approvalRequestService.listPageForCurrentUser(2, null, null);
+            ApprovalPageResponse secondPage = approvalRequestService.listPageForCurrentUser(2, firstPage.nextCursor(), null);
+
+            // then: 반환값 검증
+            assertThat(firstPage.items()).extracting(ApprovalSummaryResponse::requestId).containsExactly(third, second);
+            assertThat(firstPage.nextCursor()).isEqualTo(second);
+            assertThat(secondPage.items()).extracting(ApprovalSummaryResponse::requestId).containsExactly(first);
+            assertThat(secondPage.nextCursor()).isNull();
+        }
+
+        @Test
+        void 참여한_문서만_최종_상태로_걸러_조회한다() {
+            // given
+            saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_APPROVED)), StepStatus.STEP_STATUS_APPROVED);
+            saveDocument(3L, List.of(step(1, 1L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+            saveDocument(1L, List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+            saveDocument(4L, List.of(step(1, 5L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+            given(authUtil.currentUserId()).willReturn(1L);
+            given(authUtil.hasRole(Role.ADMIN)).willReturn(false);
+
+            // when
+            ApprovalPageResponse page = approvalRequestService.listPageForCurrentUser(10, null, StepStatus.STEP_STATUS_PENDING);
+
+            // then: 반환값 검증
+            assertThat(page.items())
+                    .extracting(ApprovalSummaryResponse::requesterId)
+                    .containsExactly(1L, 3L);
+            assertThat(page.nextCursor()).isNull();
+        }
+
+        @Test
+        void limit이_범위를_벗어나면_BAD_REQUEST를_던진다() {
+            // when & then: 예외 검증
+            assertThatThrownBy(() -> approvalRequestService.listPageForCurrentUser(101, null, null))
+                    .isInstanceOf(CustomException.class)
+                    .extracting("errorCode")
+                    .isEqualTo(ErrorCode.BAD_REQUEST);
+        }
+    }
+
     @Nested
     class FindOne {
 
@@ -361,11 +441,9 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             // when
             approvalRequestService.resendPending(doc.getRequestId());
 
-            // then: 메시지 발행 검증
-            verify(rabbitTemplate, times(1)).convertAndSend(
-                    eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                    eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST),
-                    any(byte[].class));
+            // then: 아웃박스 기록 검증
+            assertThat(outbox()).extracting(OutboxMessage::getRoutingKey)
+                    .containsExactly(ApprovalMessagingConstants.ROUTING_KEY_REQUEST);
         }
 
         @Test
@@ -380,8 +458,8 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             // when
             approvalRequestService.resendPending(doc.getRequestId());
 
-            // then: 메시지 발행 없음
-            verifyNoInteractions(rabbitTemplate);
+            // then: 메시지 기록 없음
+            assertThat(outbox()).isEmpty();
         }
 
         @Test
@@ -421,11 +499,9 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             assertThat(updated.getSteps().get(1).getStatus()).isEqualTo(StepStatus.STEP_STATUS_PENDING);
             assertThat(updated.getFinalStatus()).isEqualTo(StepStatus.STEP_STATUS_PENDING);
 
-            // then: 다음 단계 메시지 전송
-            verify(rabbitTemplate, times(1)).convertAndSend(
-                    eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                    eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST),
-                    any(byte[].class));
+            // then: 다음 단계 메시지 기록
+            assertThat(outbox()).extracting(OutboxMessage::getRoutingKey)
+                    .containsExactly(ApprovalMessagingConstants.ROUTING_KEY_REQUEST);
         }
 
         @Test
@@ -447,10 +523,10 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             assertThat(updated.getSteps().get(1).getStatus()).isEqualTo(StepStatus.STEP_STATUS_APPROVED);
 
             // then: 알림 및 gRPC 호출 검증
-            verify(notificationClient, times(1)).send(eq(1L), eq(String.format(
+            verify(notificationDispatcher, times(1)).dispatch(eq(1L), eq(String.format(
                     "{\"requestId\":%d,\"result\":\"approved\",\"finalResult\":\"approved\"}",
                     doc.getRequestId())));
-            verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(byte[].class));
+            assertThat(outbox()).isEmpty();
         }
 
         @Test
@@ -470,10 +546,10 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             assertThat(updated.getSteps().get(0).getStatus()).isEqualTo(StepStatus.STEP_STATUS_REJECTED);
 
             // then: 알림 payload 검증
-            verify(notificationClient, times(1)).send(eq(1L), eq(String.format(
+            verify(notificationDispatcher, times(1)).dispatch(eq(1L), eq(String.format(
                     "{\"requestId\":%d,\"result\":\"rejected\",\"rejectedBy\":%d,\"finalResult\":\"rejected\"}",
                     doc.getRequestId(), 10L)));
-            verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(byte[].class));
+            assertThat(outbox()).isEmpty();
         }
 
         @Test
@@ -492,7 +568,8 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
             // then: 상태 변경 없음
             ApprovalDocument updated = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
             assertThat(updated.getSteps().get(0).getStatus()).isEqualTo(StepStatus.STEP_STATUS_APPROVED);
-            verifyNoInteractions(notificationClient, rabbitTemplate);
+            verifyNoInteractions(notificationDispatcher);
+            assertThat(outbox()).isEmpty();
         }
 
         @Test
@@ -543,58 +620,288 @@ class ApprovalRequestServiceTest extends ApprovalRequestIntegrationTestSupport {
                     .extracting("errorCode")
                     .isEqualTo(ErrorCode.APPROVAL_PROCESS_NOT_FOUND);
         }
+
+        @Test
+        void 같은_단계에_결과가_동시에_와도_한_번만_반영된다() throws Exception {
+            // given
+            ApprovalDocument doc = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_PENDING),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+            int threads = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+
+            // when
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    approvalRequestService.updateResult(
+                            doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            // then: 다음 단계 요청은 한 번만 기록
+            ApprovalDocument updated = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
+            assertThat(updated.getSteps().get(0).getStatus()).isEqualTo(StepStatus.STEP_STATUS_APPROVED);
+            assertThat(updated.getVersion()).isEqualTo(doc.getVersion() + 1);
+            assertThat(outbox()).hasSize(1);
+        }
+
+        @Test
+        void 모든_단계가_승인됐지만_finalStatus가_PENDING이면_중복_결과로_완료한다() {
+            // given
+            ApprovalDocument doc = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_APPROVED),
+                            step(2, 20L, StepStatus.STEP_STATUS_APPROVED)),
+                    StepStatus.STEP_STATUS_PENDING);
+
+            // when
+            approvalRequestService.updateResult(
+                    doc.getRequestId(), 20L, 2, ApprovalResultStatus.APPROVAL_RESULT_APPROVED);
+            approvalRequestService.updateResult(
+                    doc.getRequestId(), 20L, 2, ApprovalResultStatus.APPROVAL_RESULT_APPROVED);
+
+            // then: 완료 처리와 알림은 한 번만
+            ApprovalDocument updated = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
+            assertThat(updated.getFinalStatus()).isEqualTo(StepStatus.STEP_STATUS_APPROVED);
+            verify(notificationDispatcher, times(1)).dispatch(eq(1L), anyString());
+        }
     }
 
     @Nested
-    class CallProcessingWithRetry {
+    class UpdateResults {
 
         @Test
-        void 첫_시도는_실패하지만_재시도에_성공하면_예외없이_종료한다() {
+        void 여러_문서의_결과를_한_번에_반영하고_다음_단계_요청과_알림을_보낸다() {
             // given
-            ApprovalCreateRequest request = new ApprovalCreateRequest(
-                    "재시도", "내용", List.of(new ApprovalCreateRequest.StepDto(1, 10L)));
-            given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(10L)).willReturn(Role.APPROVER);
-            doThrow(new RuntimeException("first fail"))
-                    .doNothing()
-                    .when(rabbitTemplate)
-                    .convertAndSend(eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                            eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST), any(byte[].class));
+            ApprovalDocument middle = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_PENDING),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+            ApprovalDocument last = saveDocument(2L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_APPROVED),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+            ApprovalDocument rejected = saveDocument(3L,
+                    List.of(step(1, 10L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
 
             // when
-            approvalRequestService.create(request);
+            approvalRequestService.updateResults(List.of(
+                    result(middle.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    result(last.getRequestId(), 20L, 2, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    result(rejected.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_REJECTED)));
 
-            // then: 재시도 횟수 검증
-            verify(rabbitTemplate, times(2)).convertAndSend(
-                    eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                    eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST),
-                    any(byte[].class));
+            // then: DB 상태 검증
+            assertThat(approvalRepository.findByRequestId(middle.getRequestId()).orElseThrow())
+                    .satisfies(doc -> {
+                        assertThat(doc.getSteps()).extracting(ApprovalDocument.StepInfo::getStatus)
+                                .containsExactly(StepStatus.STEP_STATUS_APPROVED, StepStatus.STEP_STATUS_PENDING);
+                        assertThat(doc.getFinalStatus()).isEqualTo(StepStatus.STEP_STATUS_PENDING);
+                        assertThat(doc.getVersion()).isEqualTo(middle.getVersion() + 1);
+                    });
+            assertThat(approvalRepository.findByRequestId(last.getRequestId()).orElseThrow().getFinalStatus())
+                    .isEqualTo(StepStatus.STEP_STATUS_APPROVED);
+            assertThat(approvalRepository.findByRequestId(rejected.getRequestId()).orElseThrow().getFinalStatus())
+                    .isEqualTo(StepStatus.STEP_STATUS_REJECTED);
+
+            // then: 다음 단계 요청과 알림 검증
+            assertThat(outbox()).extracting(message -> parse(message).getRequestId())
+                    .containsExactly(middle.getRequestId());
+            verify(notificationDispatcher).dispatch(eq(2L), eq(String.format(
+                    "{\"requestId\":%d,\"result\":\"approved\",\"finalResult\":\"approved\"}",
+                    last.getRequestId())));
+            verify(notificationDispatcher).dispatch(eq(3L), eq(String.format(
+                    "{\"requestId\":%d,\"result\":\"rejected\",\"rejectedBy\":%d,\"finalResult\":\"rejected\"}",
+                    rejected.getRequestId(), 10L)));
         }
 
         @Test
-        void 모든_재시도에_실패하면_예외를_전파한다() {
+        void 같은_문서의_결과는_순서대로_반영하고_중복과_잘못된_결과는_버린다() {
             // given
+            ApprovalDocument doc = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_PENDING),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+
+            // when
+            approvalRequestService.updateResults(List.of(
+                    result(doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    result(doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    result(doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_REJECTED),
+                    result(doc.getRequestId(), 99L, 3, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    result(doc.getRequestId() + 1000, 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED),
+                    result(doc.getRequestId(), 20L, 2, ApprovalResultStatus.APPROVAL_RESULT_APPROVED)));
+
+            // then: 두 단계 모두 한 번의 쓰기로 반영
+            ApprovalDocument updated = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
+            assertThat(updated.getSteps()).extracting(ApprovalDocument.StepInfo::getStatus)
+                    .containsExactly(StepStatus.STEP_STATUS_APPROVED, StepStatus.STEP_STATUS_APPROVED);
+            assertThat(updated.getFinalStatus()).isEqualTo(StepStatus.STEP_STATUS_APPROVED);
+            assertThat(updated.getVersion()).isEqualTo(doc.getVersion() + 1);
+            verify(notificationDispatcher, times(1)).dispatch(eq(1L), anyString());
+            assertThat(outbox()).isEmpty();
+        }
+
+        @Test
+        void 이미_반영된_결과만_있으면_쓰지_않는다() {
+            // given
+            ApprovalDocument doc = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_APPROVED),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+
+            // when
+            approvalRequestService.updateResults(List.of(
+                    result(doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED)));
+
+            // then: 상태 변경 없음
+            assertThat(approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow().getVersion())
+                    .isEqualTo(doc.getVersion());
+            verifyNoInteractions(notificationDispatcher);
+            assertThat(outbox()).isEmpty();
+        }
+
+        @Test
+        void 읽은_뒤_다른_쓰기가_끼어든_문서는_저장하지_않는다() {
+            // given
+            ApprovalDocument doc = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_PENDING),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+            ApprovalDocument stale = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
+            approvalRequestService.updateResult(
+                    doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_REJECTED);
+            stale.getSteps().getFirst().updateStatus(StepStatus.STEP_STATUS_APPROVED);
+
+            // when
+            List<ApprovalDocument> saved = approvalRepository.saveTransitions(List.of(stale), Instant.now());
+
+            // then: 먼저 반영된 반려가 유지된다
+            assertThat(saved).isEmpty();
+            assertThat(approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow().getFinalStatus())
+                    .isEqualTo(StepStatus.STEP_STATUS_REJECTED);
+        }
+
+        @Test
+        void 다른_쓰기가_같은_상태로_먼저_바꾼_문서는_이번_저장으로_세지_않는다() {
+            // given
+            ApprovalDocument doc = saveDocument(1L,
+                    List.of(
+                            step(1, 10L, StepStatus.STEP_STATUS_PENDING),
+                            step(2, 20L, StepStatus.STEP_STATUS_PENDING)),
+                    StepStatus.STEP_STATUS_PENDING);
+            ApprovalDocument stale = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
+            approvalRequestService.updateResult(
+                    doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED);
+            stale.getSteps().getFirst().updateStatus(StepStatus.STEP_STATUS_APPROVED);
+
+            // when
+            List<ApprovalDocument> saved = approvalRepository.saveTransitions(List.of(stale), Instant.now());
+
+            // then: 다음 단계 요청은 먼저 쓴 쪽이 기록한 한 건뿐이다
+            assertThat(saved).isEmpty();
+            assertThat(approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow().getVersion())
+                    .isEqualTo(doc.getVersion() + 1);
+            assertThat(outbox()).hasSize(1);
+        }
+
+        private ApprovalResultRequest result(long requestId, long approverId, int step, ApprovalResultStatus status) {
+            return ApprovalResultRequest.newBuilder()
+                    .setRequestId(requestId)
+                    .setApproverId(approverId)
+                    .setStep(step)
+                    .setStatus(status)
+                    .build();
+        }
+    }
+
+    @Nested
+    class Outbox {
+
+        @Test
+        void 처리_요청_메시지_기록이_실패하면_문서_저장도_롤백한다() {
+            // given: 제목이 없으면 protobuf 메시지를 만들 수 없다
             ApprovalCreateRequest request = new ApprovalCreateRequest(
-                    "재시도 실패", "내용", List.of(new ApprovalCreateRequest.StepDto(1, 10L)));
+                    null, "내용", List.of(new ApprovalCreateRequest.StepDto(1, 10L)));
             given(authUtil.currentUserId()).willReturn(1L);
-            given(employeeClient.findById(1L))
-                    .willReturn(new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE));
-            given(employeeClient.findRole(10L)).willReturn(Role.APPROVER);
-            doThrow(new RuntimeException("fail1"))
-                    .doThrow(new RuntimeException("fail2"))
-                    .when(rabbitTemplate)
-                    .convertAndSend(eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                            eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST), any(byte[].class));
+            givenEmployees(requester(), employee(10L, Role.APPROVER));
 
             // when & then: 예외 검증
             assertThatThrownBy(() -> approvalRequestService.create(request))
-                    .isInstanceOf(RuntimeException.class);
-            verify(rabbitTemplate, times(2)).convertAndSend(
-                    eq(ApprovalMessagingConstants.EXCHANGE_NAME),
-                    eq(ApprovalMessagingConstants.ROUTING_KEY_REQUEST),
-                    any(byte[].class));
+                    .isInstanceOf(NullPointerException.class);
+
+            // then: 문서와 아웃박스 모두 기록 없음
+            assertThat(approvalRepository.count()).isZero();
+            assertThat(outbox()).isEmpty();
+        }
+
+        @Test
+        void 다음_단계_요청_기록이_실패하면_단계_전이도_롤백한다() {
+            // given: 제목이 없으면 protobuf 메시지를 만들 수 없다
+            List<ApprovalDocument.StepInfo> steps = List.of(
+                    step(1, 10L, StepStatus.STEP_STATUS_PENDING),
+                    step(2, 20L, StepStatus.STEP_STATUS_PENDING));
+            ApprovalDocument doc = approvalRepository.save(ApprovalDocument.builder()
+                    .requestId(requestIdGenerator.nextId())
+                    .requesterId(1L)
+                    .steps(steps)
+                    .participantIds(ApprovalDocument.participantsOf(1L, steps))
+                    .finalStatus(StepStatus.STEP_STATUS_PENDING)
+                    .createdAt(Instant.now())
+                    .updatedAt(Instant.now())
+                    .build());
+
+            // when & then: 예외 검증
+            assertThatThrownBy(() -> approvalRequestService.updateResult(
+                    doc.getRequestId(), 10L, 1, ApprovalResultStatus.APPROVAL_RESULT_APPROVED))
+                    .isInstanceOf(NullPointerException.class);
+
+            // then: 단계는 그대로여서 재전달된 결과로 다시 전이할 수 있다
+            ApprovalDocument unchanged = approvalRepository.findByRequestId(doc.getRequestId()).orElseThrow();
+            assertThat(unchanged.getSteps().getFirst().getStatus()).isEqualTo(StepStatus.STEP_STATUS_PENDING);
+            assertThat(unchanged.getVersion()).isEqualTo(doc.getVersion());
+            assertThat(outbox()).isEmpty();
         }
     }
+
+    private List<OutboxMessage> outbox() {
+        return outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, 100));
+    }
+
+    private ApprovalRequest parse(OutboxMessage message) {
+        try {
+            return ApprovalRequest.parseFrom(message.getPayload());
+        } catch (InvalidProtocolBufferException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void givenEmployees(EmployeeClient.EmployeeDto... employees) {
+        given(employeeClient.findAllByIds(any())).willReturn(Arrays.stream(employees)
+                .collect(Collectors.toMap(EmployeeClient.EmployeeDto::id, employee -> employee)));
+    }
+
+    private EmployeeClient.EmployeeDto requester() {
+        return new EmployeeClient.EmployeeDto(1L, "req@example.com", "요청자", "개발팀", "사원", Role.EMPLOYEE);
+    }
+
+    private EmployeeClient.EmployeeDto employee(Long id, Role role) {
+        return new EmployeeClient.EmployeeDto(id, "e" + id + "@example.com", "직원" + id, "개발팀", "팀장", role);
+    }
 }
@@ -0,0 +1,86 @@
+package erp.approvalrequest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
+import erp.approvalrequest.domain.ApprovalDocument;
+import erp.common.messaging.ApprovalSharding;
+import erp.shared.proto.approval.ApprovalRequest;
+import erp.shared.proto.approval.StepStatus;
+
+class PendingApprovalStreamServiceTest extends ApprovalRequestIntegrationTestSupport {
+
+    @Autowired
+    private PendingApprovalStreamService pendingApprovalStreamService;
+
+    @Test
+    void 진행중인_문서만_length_delimited_메시지로_기록한다() throws IOException {
+        // given
+        ApprovalDocument pending = saveDocument(1L, List.of(
+                step(1, 10L, StepStatus.STEP_STATUS_APPROVED),
+                step(2, 20L, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+        saveDocument(2L, List.of(step(1, 10L, StepStatus.STEP_STATUS_APPROVED)), StepStatus.STEP_STATUS_APPROVED);
+        saveDocument(3L, List.of(step(1, 10L, StepStatus.STEP_STATUS_REJECTED)), StepStatus.STEP_STATUS_REJECTED);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        int written = pendingApprovalStreamService.writePending(1, Set.of(), out);
+
+        // then: 반환값 검증
+        List<ApprovalRequest> messages = readAll(out.toByteArray());
+        assertThat(written).isEqualTo(1);
+        assertThat(messages).hasSize(1);
+        assertThat(messages.getFirst().getRequestId()).isEqualTo(pending.getRequestId());
+        assertThat(messages.getFirst().getStepsList()).hasSize(2);
+    }
+
+    @Test
+    void 지정한_샤드의_승인자_문서만_기록한다() throws IOException {
+        // given
+        int shardCount = 4;
+        long approverA = 10L;
+        long approverB = findApproverOutsideShard(ApprovalSharding.shardOf(approverA, shardCount), shardCount);
+        ApprovalDocument docA = saveDocument(1L, List.of(step(1, approverA, StepStatus.STEP_STATUS_PENDING)),
+                StepStatus.STEP_STATUS_PENDING);
+        saveDocument(2L, List.of(step(1, approverB, StepStatus.STEP_STATUS_PENDING)), StepStatus.STEP_STATUS_PENDING);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        pendingApprovalStreamService.writePending(
+                shardCount, Set.of(ApprovalSharding.shardOf(approverA, shardCount)), out);
+
+        // then: 반환값 검증
+        assertThat(readAll(out.toByteArray()))
+                .extracting(ApprovalRequest::getRequestId)
+                .containsExactly(docA.getRequestId());
+    }
+
+    private long findApproverOutsideShard(int shard, int shardCount) {
+        long approverId = 11L;
+        while (ApprovalSharding.shardOf(approverId, shardCount) == shard) {
+            approverId++;
+        }
+        return approverId;
+    }
+
+    private List<ApprovalRequest> readAll(byte[] bytes) throws IOException {
+        List<ApprovalRequest> messages = new ArrayList<>();
+        InputStream in = new ByteArrayInputStream(bytes);
+        ApprovalRequest message;
+        while ((message = ApprovalRequest.parseDelimitedFrom(in)) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -1,14 +1,35 @@
 package erp.approvalrequest.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.bson.Document;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.test.context.TestPropertySource;
 
 import erp.approvalrequest.ApprovalRequestIntegrationTestSupport;
 
 class RequestIdGeneratorTest extends ApprovalRequestIntegrationTestSupport {
 
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    /**
+     * 현재 설정으로 새 인스턴스를 만든다. 다른 인스턴스(서버)가 같은 시퀀스를 나눠 쓰는 상황을 흉내낸다.
+     */
+    private RequestIdGenerator newInstance() {
+        return beanFactory.createBean(RequestIdGenerator.class);
+    }
+
     @Nested
     class NextId {
 
@@ -38,7 +59,7 @@ class RequestIdGeneratorTest extends ApprovalRequestIntegrationTestSupport {
         void 기존_시퀀스가_있어도_연속증가를_보장한다() {
             // given
             requestIdGenerator.nextId(); // 1 생성
-            RequestIdGenerator another = new RequestIdGenerator(mongoTemplate);
+            RequestIdGenerator another = newInstance();
 
             // when
             long next = another.nextId();
@@ -47,4 +68,105 @@ class RequestIdGeneratorTest extends ApprovalRequestIntegrationTestSupport {
             assertThat(next).isEqualTo(2L);
         }
     }
+
+    @Nested
+    @TestPropertySource(properties = "approval.request-id.block-size=10")
+    class BlockAllocation {
+
+        @Test
+        void 구간을_예약하면_구간_안에서는_DB_시퀀스를_한_번만_증가시킨다() {
+            // given
+            RequestIdGenerator generator = newInstance();
+
+            // when
+            long first = generator.nextId();
+            for (int i = 0; i < 8; i++) {
+                generator.nextId();
+            }
+            long last = generator.nextId();
+            long nextBlock = generator.nextId();
+
+            // then: 반환값 검증
+            assertThat(first).isEqualTo(1L);
+            assertThat(last).isEqualTo(10L);
+            assertThat(nextBlock).isEqualTo(11L);
+            assertThat(newInstance().nextId()).isEqualTo(21L);
+        }
+
+        @Test
+        void 여러_인스턴스가_동시에_발급해도_id가_겹치지_않는다() {
+            // given
+            RequestIdGenerator first = newInstance();
+            RequestIdGenerator second = newInstance();
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+            // when
+            IntStream.range(0, 200).parallel()
+                    .forEach(i -> ids.add((i % 2 == 0 ? first : second).nextId()));
+
+            // then: 반환값 검증
+            assertThat(ids).hasSize(200);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"approval.request-id.mode=snowflake", "approval.request-id.node-id=3"})
+    class SnowflakeMode {
+
+        @Test
+        void Snowflake_발급기가_있으면_Mongo_시퀀스를_쓰지_않는다() {
+            // when
+            long id = requestIdGenerator.nextId();
+
+            // then: 반환값 검증
+            assertThat((id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(3L);
+            assertThat(mongoTemplate.getCollectionNames()).isEmpty();
+        }
+
+        @Test
+        void 노드_id_임대는_인스턴스마다_다른_id를_배정하고_반납한다() {
+            // given
+            NodeIdLease first = new NodeIdLease(mongoTemplate, 60_000L);
+            NodeIdLease second = new NodeIdLease(mongoTemplate, 60_000L);
+
+            // when
+            long firstNodeId = first.nodeId();
+            long secondNodeId = second.nodeId();
+            first.close();
+            NodeIdLease third = new NodeIdLease(mongoTemplate, 60_000L);
+
+            // then: 반환값 검증
+            try {
+                assertThat(firstNodeId).isNotEqualTo(secondNodeId);
+                assertThat(second.isHeld()).isTrue();
+                assertThat(first.isHeld()).isFalse();
+                assertThat(third.nodeId()).isEqualTo(firstNodeId);
+            } finally {
+                second.close();
+                third.close();
+            }
+        }
+
+        @Test
+        void 노드_id_임대를_잃으면_비어_있는_노드_id_를_다시_임대한다() {
+            // given
+            NodeIdLease lease = new NodeIdLease(mongoTemplate, 300L);
+            long lostNodeId = lease.nodeId();
+
+            // when: 다른 인스턴스가 같은 노드 id 를 가져간다
+            mongoTemplate.getCollection(NodeIdLease.COLLECTION).updateOne(
+                    new Document("_id", lostNodeId),
+                    new Document("$set", new Document("owner", "other-instance")
+                            .append("expiresAt", Instant.now().plusSeconds(60))));
+
+            // then: 다른 노드 id 로 다시 발급할 수 있다
+            try {
+                await().atMost(Duration.ofSeconds(5))
+                        .until(() -> lease.isHeld() && lease.currentNodeId() != lostNodeId);
+                assertThat(lease.currentNodeId()).isNotNegative();
+            } finally {
+                lease.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package erp.approvalrequest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long START = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000L;
+    private static final int TIMESTAMP_SHIFT = SnowflakeIdGenerator.NODE_ID_BITS + SnowflakeIdGenerator.SEQUENCE_BITS;
+
+    @Test
+    void 시각_노드_순번을_비트로_조합하고_단조_증가한다() {
+        // given
+        AtomicLong clock = new AtomicLong(START);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 5, 10, clock::get);
+
+        // when
+        long first = generator.nextId();
+        long second = generator.nextId();
+        clock.incrementAndGet();
+        long third = generator.nextId();
+
+        // then: 반환값 검증
+        assertThat(first >>> TIMESTAMP_SHIFT).isEqualTo(1_000L);
+        assertThat((first >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(5L);
+        assertThat(first & SnowflakeIdGenerator.SEQUENCE_MASK).isZero();
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(third).isGreaterThan(second);
+        assertThat(third & SnowflakeIdGenerator.SEQUENCE_MASK).isZero();
+    }
+
+    @Test
+    void 같은_밀리초의_순번을_다_쓰면_다음_밀리초로_넘어간다() {
+        // given
+        AtomicLong clock = new AtomicLong(START);
+        AtomicLong reads = new AtomicLong();
+        int perMillis = (int) SnowflakeIdGenerator.SEQUENCE_MASK + 1;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 1, 10,
+                () -> reads.incrementAndGet() > perMillis ? clock.get() + 1 : clock.get());
+        long last = 0;
+        for (int i = 0; i < perMillis; i++) {
+            last = generator.nextId();
+        }
+
+        // when
+        long overflow = generator.nextId();
+
+        // then: 반환값 검증
+        assertThat(last & SnowflakeIdGenerator.SEQUENCE_MASK).isEqualTo(SnowflakeIdGenerator.SEQUENCE_MASK);
+        assertThat(overflow >>> TIMESTAMP_SHIFT).isEqualTo(1_001L);
+        assertThat(overflow).isGreaterThan(last);
+    }
+
+    @Test
+    void 시계가_허용치보다_크게_뒤로_가면_발급을_거부한다() {
+        // given
+        AtomicLong clock = new AtomicLong(START);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> 1, 10, clock::get);
+        generator.nextId();
+        clock.addAndGet(-11);
+
+        // when & then: 예외 검증
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void 노드_id_임대를_잃으면_발급을_거부한다() {
+        // given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(() -> -1, 10, () -> START);
+
+        // when & then: 예외 검증
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void 노드_id_범위를_벗어나면_생성할_수_없다() {
+        // when & then: 예외 검증
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 기준_시각에서_17년이_지나도_JavaScript_안전_정수_범위를_넘지_않는다() {
+        // given
+        long lastMillis = SnowflakeIdGenerator.EPOCH_MILLIS + SnowflakeIdGenerator.MAX_TIMESTAMP;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(
+                () -> SnowflakeIdGenerator.MAX_NODE_ID, 10, () -> lastMillis);
+
+        // when
+        long id = generator.nextId();
+
+        // then: 반환값 검증
+        assertThat(id).isLessThanOrEqualTo((1L << 53) - 1);
+        assertThat(Duration.ofMillis(SnowflakeIdGenerator.MAX_TIMESTAMP).toDays()).isGreaterThan(17 * 365);
+    }
+}
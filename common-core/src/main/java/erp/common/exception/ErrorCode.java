@@ -34,6 +34,7 @@ public enum ErrorCode {
     APPROVAL_PROCESS_NOT_FOUND(HttpStatus.NOT_FOUND, "결재 처리 정보를 찾을 수 없습니다."),
     APPROVAL_PROCESS_INVALID_STATUS(HttpStatus.BAD_REQUEST, "결재 상태가 올바르지 않습니다."),
     APPROVAL_PROCESS_CONFLICT(HttpStatus.CONFLICT, "결재 처리 중 충돌이 발생했습니다. 다시 시도해주세요."),
+    APPROVAL_PROCESS_PUBLISH_FAILED(HttpStatus.SERVICE_UNAVAILABLE, "결재 결과 전송에 실패했습니다. 다시 시도해주세요."),
 
     // Notification
     NOTIFICATION_SESSION_NOT_FOUND(HttpStatus.NOT_FOUND, "알림 세션을 찾을 수 없습니다."),
@@ -0,0 +1,65 @@
+package erp.common.http;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * 모든 RestClient.Builder 에 keep-alive 커넥션 풀을 공유하는 요청 팩토리를 적용한다.
+ * 각 클라이언트는 빌더로 대상 서비스별 RestClient 를 한 번만 만들어 재사용한다.
+ * 요청 지표(http.client.requests)는 Boot 가 빌더에 붙이는 observation 으로, 풀 지표는 MeterBinder 로 노출한다.
+ */
+@Configuration
+@EnableConfigurationProperties(InterServiceHttpProperties.class)
+public class InterServiceHttpClientConfig {
+
+    static final String POOL_NAME = "inter-service";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager interServiceConnectionManager(InterServiceHttpProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxConnections())
+                .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.readTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.connectionTimeToLive()))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient interServiceHttpClient(
+            PoolingHttpClientConnectionManager interServiceConnectionManager, InterServiceHttpProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(interServiceConnectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.idleTimeout()))
+                .build();
+    }
+
+    @Bean
+    public RestClientCustomizer interServiceRestClientCustomizer(CloseableHttpClient interServiceHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                new HttpComponentsClientHttpRequestFactory(interServiceHttpClient);
+        return builder -> builder.requestFactory(requestFactory);
+    }
+
+    @Bean
+    public MeterBinder interServiceConnectionPoolMetrics(
+            PoolingHttpClientConnectionManager interServiceConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(interServiceConnectionManager, POOL_NAME);
+    }
+}
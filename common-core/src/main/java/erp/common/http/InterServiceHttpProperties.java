@@ -0,0 +1,19 @@
+package erp.common.http;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 서비스 간 HTTP 호출에 쓰는 공용 커넥션 풀 설정.
+ */
+@ConfigurationProperties(prefix = "inter-service.http")
+public record InterServiceHttpProperties(
+        @DefaultValue("200") int maxConnections,
+        @DefaultValue("50") int maxConnectionsPerRoute,
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout,
+        @DefaultValue("30s") Duration idleTimeout,
+        @DefaultValue("5m") Duration connectionTimeToLive) {
+}
@@ -0,0 +1,68 @@
+package erp.common.messaging;
+
+import static erp.common.messaging.ApprovalMessagingConstants.REQUEST_QUEUE_NAME;
+import static erp.common.messaging.ApprovalMessagingConstants.RESULT_QUEUE_NAME;
+import static erp.common.messaging.ApprovalMessagingConstants.ROUTING_KEY_REQUEST;
+import static erp.common.messaging.ApprovalMessagingConstants.ROUTING_KEY_RESULT;
+
+/**
+ * 결재 요청 메시지를 승인자 기준으로 샤드에 나누는 규칙.
+ * 요청 서비스(발행)와 처리 서비스(수신)가 같은 규칙을 써야 한 승인자의 큐가 한 노드에만 모인다.
+ * 샤드 수가 1 이하면 기존 단일 큐/라우팅 키를 그대로 사용한다.
+ *
+ * <p>결재 결과는 requestId 기준으로 파티션 큐에 나눈다. 파티션마다 소비자가 하나뿐이므로
+ * 한 문서의 결과는 순서대로 처리되고, 서로 다른 문서의 결과는 파티션 수만큼 병렬로 처리된다.
+ */
+public final class ApprovalSharding {
+
+    private ApprovalSharding() {
+    }
+
+    /**
+     * Jump consistent hash. 샤드 수가 n -> n+1 로 늘어날 때 약 1/(n+1) 의 승인자만 새 샤드로 옮겨진다.
+     */
+    public static int shardOf(long approverId, int shardCount) {
+        if (shardCount <= 1) {
+            return 0;
+        }
+        long key = approverId;
+        long b = -1;
+        long j = 0;
+        while (j < shardCount) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    public static String requestRoutingKey(long approverId, int shardCount) {
+        if (shardCount <= 1) {
+            return ROUTING_KEY_REQUEST;
+        }
+        return shardRoutingKey(shardOf(approverId, shardCount));
+    }
+
+    public static String shardRoutingKey(int shard) {
+        return ROUTING_KEY_REQUEST + ".shard." + shard;
+    }
+
+    public static String shardQueueName(int shard) {
+        return REQUEST_QUEUE_NAME + "." + shard;
+    }
+
+    public static String resultRoutingKey(long requestId, int partitionCount) {
+        if (partitionCount <= 1) {
+            return ROUTING_KEY_RESULT;
+        }
+        return resultPartitionRoutingKey(shardOf(requestId, partitionCount));
+    }
+
+    public static String resultPartitionRoutingKey(int partition) {
+        return ROUTING_KEY_RESULT + ".partition." + partition;
+    }
+
+    public static String resultPartitionQueueName(int partition) {
+        return RESULT_QUEUE_NAME + "." + partition;
+    }
+}
@@ -0,0 +1,188 @@
+package erp.common.messaging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 브로커 확인(correlated publisher confirm)을 메시지별 future 로 돌려주는 발행기.
+ * future 는 ack 면 정상 완료되고, nack·라우팅 실패(returned)·확인 시간 초과면 예외로 완료된다.
+ * RabbitTemplate 의 ConnectionFactory 는 publisher-confirm-type: correlated 로 설정해야 한다.
+ *
+ * <p>batchSize 가 2 이상이면 {@link #publish} 요청을 모아 batchSize 개가 차거나 maxDelayMillis 가 지나면
+ * 전용 스레드에서 한 채널로 연속 발행한다. 묶음은 모인 순서대로 발행된다.
+ */
+@Slf4j
+public class ConfirmingPublisher implements AutoCloseable {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final int batchSize;
+    private final long maxDelayMillis;
+    private final long confirmTimeoutMillis;
+
+    /** 묶음 발행 스레드. 묶음을 쓰지 않으면 null */
+    private final ScheduledExecutorService flusher;
+
+    private final Object lock = new Object();
+    private List<Pending> buffer = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public ConfirmingPublisher(
+            RabbitTemplate rabbitTemplate, int batchSize, long maxDelayMillis, long confirmTimeoutMillis) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.flusher = batchSize > 1
+                ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                        .name("confirming-publisher")
+                        .daemon(true)
+                        .factory())
+                : null;
+    }
+
+    /**
+     * 메시지 하나를 발행한다. 묶음을 쓰면 곧바로 반환하고 실제 발행은 묶음이 찰 때 일어난다.
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, byte[] body) {
+        Pending pending = new Pending(new Outbound(exchange, routingKey, body), new CompletableFuture<>());
+        if (flusher == null) {
+            send(List.of(pending));
+            return pending.result();
+        }
+        synchronized (lock) {
+            buffer.add(pending);
+            if (buffer.size() >= batchSize) {
+                List<Pending> ready = drain();
+                flusher.execute(() -> send(ready));
+            } else if (scheduledFlush == null) {
+                scheduledFlush = flusher.schedule(this::flush, maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return pending.result();
+    }
+
+    /**
+     * 주어진 메시지들을 묶음 버퍼를 거치지 않고 곧바로 한 채널에서 연속 발행한다.
+     *
+     * @return 모든 메시지가 확인되면 완료되고, 하나라도 실패하면 그 예외로 완료되는 future
+     */
+    public CompletableFuture<Void> publishAll(List<Outbound> messages) {
+        return CompletableFuture.allOf(publishEach(messages).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * publishAll 과 같이 발행하되, 어떤 메시지가 확인됐는지 알 수 있도록 메시지별 future 를 돌려준다.
+     *
+     * @return messages 와 같은 순서의 메시지별 future
+     */
+    public List<CompletableFuture<Void>> publishEach(List<Outbound> messages) {
+        List<Pending> batch = messages.stream()
+                .map(message -> new Pending(message, new CompletableFuture<Void>()))
+                .toList();
+        send(batch);
+        return batch.stream().map(Pending::result).toList();
+    }
+
+    /**
+     * 버퍼에 모인 메시지를 지금 발행한다.
+     */
+    public void flush() {
+        List<Pending> ready;
+        synchronized (lock) {
+            ready = drain();
+        }
+        if (!ready.isEmpty()) {
+            send(ready);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        synchronized (lock) {
+            List<Pending> ready = drain();
+            if (!ready.isEmpty()) {
+                flusher.execute(() -> send(ready));
+            }
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(confirmTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Pending> drain() {
+        List<Pending> ready = buffer;
+        buffer = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return ready;
+    }
+
+    private void send(List<Pending> batch) {
+        try {
+            if (batch.size() == 1) {
+                send(rabbitTemplate, batch.getFirst());
+            } else {
+                rabbitTemplate.invoke(operations -> {
+                    batch.forEach(pending -> send(operations, pending));
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("메시지 {}건 발행에 실패했습니다: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private void send(RabbitOperations operations, Pending pending) {
+        CorrelationData correlation = new CorrelationData();
+        track(correlation, pending.result());
+        Outbound message = pending.message();
+        operations.convertAndSend(message.exchange(), message.routingKey(), message.body(), correlation);
+    }
+
+    private void track(CorrelationData correlation, CompletableFuture<Void> result) {
+        correlation.getFuture()
+                .orTimeout(confirmTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    ReturnedMessage returned = correlation.getReturned();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else if (!confirm.isAck()) {
+                        result.completeExceptionally(new AmqpException("브로커가 발행을 거부했습니다: " + confirm.getReason()));
+                    } else if (returned != null) {
+                        result.completeExceptionally(new AmqpException(
+                                "라우팅할 큐가 없어 반송되었습니다: " + returned.getRoutingKey()));
+                    } else {
+                        result.complete(null);
+                    }
+                });
+    }
+
+    public record Outbound(String exchange, String routingKey, byte[] body) {}
+
+    private record Pending(Outbound message, CompletableFuture<Void> result) {}
+}
@@ -0,0 +1,14 @@
+package erp.common.messaging;
+
+/**
+ * 알림 전달용 RabbitMQ Exchange/Queue/RoutingKey 상수 모음.
+ */
+public final class NotificationMessagingConstants {
+
+    public static final String EXCHANGE_NAME = "notification.exchange";
+    public static final String QUEUE_NAME = "notification.queue";
+    public static final String ROUTING_KEY = "notification";
+
+    private NotificationMessagingConstants() {
+    }
+}
@@ -0,0 +1,60 @@
+package erp.common.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ApprovalShardingTest {
+
+    @Test
+    @DisplayName("샤드 수가 1 이하면 기존 라우팅 키를 사용한다")
+    void legacyRoutingKeyWhenSingleShard() {
+        // when & then: 반환값 검증
+        assertThat(ApprovalSharding.requestRoutingKey(42L, 1)).isEqualTo(ApprovalMessagingConstants.ROUTING_KEY_REQUEST);
+        assertThat(ApprovalSharding.requestRoutingKey(42L, 0)).isEqualTo(ApprovalMessagingConstants.ROUTING_KEY_REQUEST);
+    }
+
+    @Test
+    @DisplayName("같은 승인자는 항상 같은 샤드에 배정되고 샤드 범위를 벗어나지 않는다")
+    void stableShardWithinRange() {
+        for (long approverId = 1; approverId <= 1000; approverId++) {
+            int shard = ApprovalSharding.shardOf(approverId, 4);
+
+            assertThat(shard).isBetween(0, 3);
+            assertThat(ApprovalSharding.shardOf(approverId, 4)).isEqualTo(shard);
+            assertThat(ApprovalSharding.requestRoutingKey(approverId, 4))
+                    .isEqualTo(ApprovalSharding.shardRoutingKey(shard));
+        }
+    }
+
+    @Test
+    @DisplayName("샤드를 하나 늘리면 기존 샤드 사이의 이동 없이 일부만 새 샤드로 옮겨진다")
+    void minimalMovementWhenShardAdded() {
+        int moved = 0;
+        for (long approverId = 1; approverId <= 10_000; approverId++) {
+            int before = ApprovalSharding.shardOf(approverId, 4);
+            int after = ApprovalSharding.shardOf(approverId, 5);
+            if (before != after) {
+                assertThat(after).isEqualTo(4);
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(1500, 2500);
+    }
+
+    @Test
+    @DisplayName("결과는 requestId 기준으로 파티션에 나뉘고, 파티션 수가 1 이하면 기존 라우팅 키를 사용한다")
+    void resultRoutingByRequestId() {
+        // when & then: 반환값 검증
+        assertThat(ApprovalSharding.resultRoutingKey(42L, 1)).isEqualTo(ApprovalMessagingConstants.ROUTING_KEY_RESULT);
+        for (long requestId = 1; requestId <= 1000; requestId++) {
+            int partition = ApprovalSharding.shardOf(requestId, 4);
+
+            assertThat(ApprovalSharding.resultRoutingKey(requestId, 4))
+                    .isEqualTo(ApprovalSharding.resultPartitionRoutingKey(partition))
+                    .isEqualTo("approval.result.partition." + partition);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package erp.common.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+@DisplayName("ConfirmingPublisher 테스트")
+class ConfirmingPublisherTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private RabbitOperations operations;
+    private List<CorrelationData> correlations;
+    private ConfirmingPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        operations = mock(RabbitOperations.class);
+        correlations = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> correlations.add(invocation.getArgument(3)))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        doAnswer(invocation -> correlations.add(invocation.getArgument(3)))
+                .when(operations).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        given(rabbitTemplate.invoke(any())).willAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+
+    @Test
+    @DisplayName("ack 를 받으면 해당 메시지의 future 만 정상 완료된다")
+    void completesOnAck() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 1, 0, 1000);
+        CompletableFuture<Void> first = publisher.publish("ex", "rk", new byte[] {1});
+        CompletableFuture<Void> second = publisher.publish("ex", "rk", new byte[] {2});
+
+        // when
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // then
+        assertThat(first).isCompleted();
+        assertThat(first.isCompletedExceptionally()).isFalse();
+        assertThat(second).isNotDone();
+    }
+
+    @Test
+    @DisplayName("nack 이나 반송이면 예외로 완료된다")
+    void failsOnNackOrReturned() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 1, 0, 1000);
+        CompletableFuture<Void> nacked = publisher.publish("ex", "rk", new byte[] {1});
+        CompletableFuture<Void> returned = publisher.publish("ex", "missing", new byte[] {2});
+
+        // when
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(false, "reject"));
+        correlations.get(1).setReturned(
+                new ReturnedMessage(new Message(new byte[] {2}), 312, "NO_ROUTE", "ex", "missing"));
+        correlations.get(1).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // then
+        assertThatThrownBy(nacked::join).hasCauseInstanceOf(AmqpException.class);
+        assertThatThrownBy(returned::join).hasCauseInstanceOf(AmqpException.class);
+    }
+
+    @Test
+    @DisplayName("확인이 오지 않으면 제한 시간 뒤 예외로 완료된다")
+    void failsOnConfirmTimeout() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 1, 0, 20);
+
+        // when
+        CompletableFuture<Void> result = publisher.publish("ex", "rk", new byte[] {1});
+
+        // then
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("묶음을 쓰면 batch-size 개가 찰 때 한 채널에서 순서대로 발행한다")
+    void sendsFullBatchOnOneChannel() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 2, 60_000, 1000);
+
+        // when
+        publisher.publish("ex", "rk", new byte[] {1});
+        publisher.publish("ex", "rk", new byte[] {2});
+
+        // then
+        verify(rabbitTemplate, timeout(1000)).invoke(any());
+        verify(operations, timeout(1000)).convertAndSend(eq("ex"), eq("rk"), eq(new byte[] {1}), any(CorrelationData.class));
+        verify(operations, timeout(1000)).convertAndSend(eq("ex"), eq("rk"), eq(new byte[] {2}), any(CorrelationData.class));
+    }
+
+    @Test
+    @DisplayName("묶음이 차지 않아도 max-delay 가 지나면 발행한다")
+    void sendsPartialBatchAfterDelay() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 10, 10, 1000);
+
+        // when
+        CompletableFuture<Void> result = publisher.publish("ex", "rk", new byte[] {1});
+
+        // then
+        verify(rabbitTemplate, timeout(1000)).convertAndSend(
+                eq("ex"), eq("rk"), eq(new byte[] {1}), any(CorrelationData.class));
+        verify(rabbitTemplate, never()).invoke(any());
+        correlations.getFirst().getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertThat(result.join()).isNull();
+    }
+
+    @Test
+    @DisplayName("publishAll 은 모두 확인되어야 완료되고, 발행 중 예외면 모든 메시지가 실패한다")
+    void publishAllWaitsForEveryConfirm() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 1, 0, 1000);
+        List<ConfirmingPublisher.Outbound> messages = List.of(
+                new ConfirmingPublisher.Outbound("ex", "rk", new byte[] {1}),
+                new ConfirmingPublisher.Outbound("ex", "rk", new byte[] {2}));
+
+        // when
+        CompletableFuture<Void> result = publisher.publishAll(messages);
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // then
+        verify(rabbitTemplate, times(1)).invoke(any());
+        assertThat(result).isNotDone();
+        correlations.get(1).getFuture().complete(new CorrelationData.Confirm(true, null));
+        assertThat(result.join()).isNull();
+
+        // when: 채널 오류
+        given(rabbitTemplate.invoke(any())).willThrow(new AmqpException("channel closed"));
+
+        // then
+        assertThatThrownBy(() -> publisher.publishAll(messages).join()).hasCauseInstanceOf(AmqpException.class);
+    }
+
+    @Test
+    @DisplayName("publishEach 는 메시지별 확인 결과를 따로 돌려준다")
+    void publishEachReportsPerMessage() {
+        // given
+        publisher = new ConfirmingPublisher(rabbitTemplate, 1, 0, 1000);
+        List<ConfirmingPublisher.Outbound> messages = List.of(
+                new ConfirmingPublisher.Outbound("ex", "rk", new byte[] {1}),
+                new ConfirmingPublisher.Outbound("ex", "rk", new byte[] {2}));
+
+        // when
+        List<CompletableFuture<Void>> results = publisher.publishEach(messages);
+        correlations.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        correlations.get(1).getFuture().complete(new CorrelationData.Confirm(false, "reject"));
+
+        // then
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).join()).isNull();
+        assertThatThrownBy(results.get(1)::join).hasCauseInstanceOf(AmqpException.class);
+    }
+}
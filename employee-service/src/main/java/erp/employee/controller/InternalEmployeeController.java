@@ -1,9 +1,13 @@
 package erp.employee.controller;
 
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import erp.employee.dto.EmployeeResponse;
@@ -21,4 +25,9 @@ public class InternalEmployeeController {
     public ResponseEntity<EmployeeResponse> get(@PathVariable Long id) {
         return ResponseEntity.ok(employeeService.findByIdWithoutAuthorization(id));
     }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<EmployeeResponse>> getAll(@RequestParam Set<Long> ids) {
+        return ResponseEntity.ok(employeeService.findAllByIdsWithoutAuthorization(ids));
+    }
 }
@@ -1,5 +1,6 @@
 package erp.employee.service;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +23,8 @@ import lombok.RequiredArgsConstructor;
 @Transactional(readOnly = true)
 public class EmployeeService {
 
+    private static final int MAX_BULK_IDS = 100;
+
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthUtil authUtil;
@@ -67,6 +70,18 @@ public class EmployeeService {
         return EmployeeResponse.from(employee);
     }
 
+    /**
+     * 내부 호출용 일괄 조회. 존재하지 않는 id 는 결과에서 빠진다.
+     */
+    public List<EmployeeResponse> findAllByIdsWithoutAuthorization(Collection<Long> ids) {
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new CustomException(ErrorCode.BAD_REQUEST);
+        }
+        return employeeRepository.findAllById(ids).stream()
+                .map(EmployeeResponse::from)
+                .toList();
+    }
+
     @Transactional
     public EmployeeResponse update(Long id, EmployeeUpdateRequest request) {
         Employee employee = employeeRepository.findById(id)
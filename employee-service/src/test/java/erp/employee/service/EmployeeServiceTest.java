@@ -210,6 +210,26 @@ class EmployeeServiceTest extends EmployeeIntegrationTestSupport {
         }
     }
 
+    @Nested
+    class FindAllByIdsWithoutAuthorization {
+
+        @Test
+        void 한_번의_조회로_존재하는_직원만_반환한다() {
+            // given
+            Employee first = saveEmployee("first@example.com", Role.APPROVER);
+            Employee second = saveEmployee("second@example.com", Role.EMPLOYEE);
+
+            // when
+            List<EmployeeResponse> responses = employeeService.findAllByIdsWithoutAuthorization(
+                    List.of(first.getId(), second.getId(), 999L));
+
+            // then: 반환값 검증
+            assertThat(responses)
+                    .extracting(EmployeeResponse::id)
+                    .containsExactlyInAnyOrder(first.getId(), second.getId());
+        }
+    }
+
     @Nested
     class Update {
 
@@ -0,0 +1,41 @@
+package erp.notification.messaging;
+
+import static erp.common.messaging.NotificationMessagingConstants.QUEUE_NAME;
+
+import java.util.List;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import erp.notification.config.WebSocketConfig.SessionStore;
+import erp.shared.proto.notification.Notification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationListener {
+
+    private final SessionStore sessionStore;
+
+    /**
+     * 묶음으로 받은 알림을 접속 중인 세션에 전달한다. 해석할 수 없는 메시지는 건너뛰어 묶음 전체가 재전달되지 않게 한다.
+     */
+    @RabbitListener(queues = QUEUE_NAME, containerFactory = "notificationBatchContainerFactory")
+    public void handle(List<Message> messages) {
+        for (Message message : messages) {
+            Notification notification;
+            try {
+                notification = Notification.parseFrom(message.getBody());
+            } catch (InvalidProtocolBufferException e) {
+                log.error("알림 메시지 역직렬화에 실패해 건너뜁니다.", e);
+                continue;
+            }
+            sessionStore.sendTo(notification.getEmployeeId(), notification.getPayload());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package erp.notification.messaging;
+
+import static erp.common.messaging.NotificationMessagingConstants.EXCHANGE_NAME;
+import static erp.common.messaging.NotificationMessagingConstants.QUEUE_NAME;
+import static erp.common.messaging.NotificationMessagingConstants.ROUTING_KEY;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableRabbit
+public class NotificationMessagingConfig {
+
+    @Bean
+    public Exchange notificationExchange() {
+        return ExchangeBuilder.directExchange(EXCHANGE_NAME).durable(true).build();
+    }
+
+    @Bean
+    public Queue notificationQueue() {
+        return QueueBuilder.durable(QUEUE_NAME).build();
+    }
+
+    @Bean
+    public Binding notificationBinding(Queue notificationQueue, Exchange notificationExchange) {
+        return BindingBuilder.bind(notificationQueue)
+                .to(notificationExchange)
+                .with(ROUTING_KEY)
+                .noargs();
+    }
+
+    /**
+     * 알림을 batch-size 개씩(혹은 receive-timeout 동안 모인 만큼) 묶어 한 번에 넘기고 묶음 단위로 ack 한다.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory notificationBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${notification.consumer.batch-size}") int batchSize,
+            @Value("${notification.consumer.prefetch}") int prefetch,
+            @Value("${notification.consumer.receive-timeout-millis}") long receiveTimeoutMillis) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        return factory;
+    }
+}
@@ -0,0 +1,68 @@
+package erp.notification.messaging;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import erp.notification.config.WebSocketConfig.SessionStore;
+import erp.shared.proto.notification.Notification;
+
+@DisplayName("NotificationListener 단위 테스트")
+class NotificationListenerTest {
+
+    private SessionStore sessionStore;
+    private NotificationListener notificationListener;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = mock(SessionStore.class);
+        notificationListener = new NotificationListener(sessionStore);
+    }
+
+    @Test
+    @DisplayName("묶음의 알림을 순서대로 세션에 전달한다")
+    void deliverBatchInOrder() {
+        // given
+        List<Message> batch = List.of(message(1L, "a"), message(2L, "b"), message(1L, "c"));
+
+        // when
+        notificationListener.handle(batch);
+
+        // then
+        verify(sessionStore).sendTo(1L, "a");
+        verify(sessionStore).sendTo(2L, "b");
+        verify(sessionStore).sendTo(1L, "c");
+        verifyNoMoreInteractions(sessionStore);
+    }
+
+    @Test
+    @DisplayName("해석할 수 없는 메시지는 건너뛰고 나머지를 전달한다")
+    void skipInvalidMessage() {
+        // given
+        Message invalid = new Message(new byte[] {(byte) 0xFF, 0x01}, new MessageProperties());
+
+        // when
+        notificationListener.handle(List.of(invalid, message(3L, "ok")));
+
+        // then
+        verify(sessionStore).sendTo(3L, "ok");
+        verifyNoMoreInteractions(sessionStore);
+    }
+
+    private Message message(long employeeId, String payload) {
+        byte[] body = Notification.newBuilder()
+                .setEmployeeId(employeeId)
+                .setPayload(payload)
+                .build()
+                .toByteArray();
+        return new Message(body, new MessageProperties());
+    }
+}